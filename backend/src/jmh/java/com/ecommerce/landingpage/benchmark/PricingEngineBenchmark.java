@@ -0,0 +1,81 @@
+package com.ecommerce.landingpage.benchmark;
+
+import com.ecommerce.landingpage.dto.PriceTotals;
+import com.ecommerce.landingpage.service.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pricing a cart with PricingEngine's long cents, versus the BigDecimal arithmetic Cart and Order
+// used to do themselves: a multiply and add per line, then discount, tax and shipping.
+// Run with -prof gc for bytes allocated per cart.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+    
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.08");
+    private static final BigDecimal FREE_SHIPPING_THRESHOLD = new BigDecimal("50");
+    private static final BigDecimal SHIPPING_FEE = new BigDecimal("5.99");
+    
+    @Param({"10", "100"})
+    private int lines;
+    
+    private PricingEngine engine;
+    private BigDecimal[] prices;
+    private long[] unitPrices;
+    private int[] quantities;
+    private BigDecimal discount;
+    
+    @Setup
+    public void setUp() {
+        engine = new PricingEngine();
+        ReflectionTestUtils.setField(engine, "taxRate", TAX_RATE);
+        ReflectionTestUtils.setField(engine, "shippingTiers", List.of("0:5.99", "50:0"));
+        ReflectionTestUtils.invokeMethod(engine, "init");
+        
+        prices = new BigDecimal[lines];
+        unitPrices = new long[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = BigDecimal.valueOf(499 + i * 137L, 2);
+            unitPrices[i] = PricingEngine.toCents(prices[i]);
+            quantities[i] = 1 + i % 4;
+        }
+        discount = new BigDecimal("10.00");
+    }
+    
+    @Benchmark
+    public PriceTotals longCents() {
+        return engine.price(unitPrices, quantities, lines, PricingEngine.toCents(discount));
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            subtotal = subtotal.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        BigDecimal taxable = subtotal.subtract(discount.min(subtotal));
+        BigDecimal tax = taxable.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal shipping = taxable.compareTo(FREE_SHIPPING_THRESHOLD) >= 0 ? BigDecimal.ZERO : SHIPPING_FEE;
+        return taxable.add(tax).add(shipping);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.landingpage.benchmark;
+
+import com.ecommerce.landingpage.config.JacksonConfig;
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.service.ProductJsonCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writing one page of products the way ProductController responds with Page<ProductDto>: field by
+// field through Jackson's bean serializer, versus with warm ProductJsonCache fragments.
+// Run with -prof gc for bytes allocated per page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductJsonBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private ObjectMapper beanMapper;
+    private ObjectMapper cachedMapper;
+    private Page<ProductDto> page;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    
+    @Setup
+    public void setUp() throws IOException {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(ProductDto.FIELD_FILTER, SimpleBeanPropertyFilter.serializeAll());
+        beanMapper = Jackson2ObjectMapperBuilder.json().filters(filters).build();
+        
+        ProductJsonCache cache = new ProductJsonCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 50_000L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        cachedMapper = Jackson2ObjectMapperBuilder.json().filters(filters)
+                .modulesToInstall(new JacksonConfig().productJsonCacheModule(cache))
+                .build();
+        
+        List<ProductDto> products = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= pageSize; id++) {
+            products.add(product(id, now));
+        }
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000);
+        // Fills the cache, as the first request for each product would
+        cachedMapper.writeValue(out, page);
+    }
+    
+    @Benchmark
+    public int beanSerializer() throws IOException {
+        return write(beanMapper);
+    }
+    
+    @Benchmark
+    public int cachedFragments() throws IOException {
+        return write(cachedMapper);
+    }
+    
+    private int write(ObjectMapper mapper) throws IOException {
+        out.reset();
+        mapper.writeValue(out, page);
+        return out.size();
+    }
+    
+    private static ProductDto product(long id, LocalDateTime now) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("A reasonably long description for product " + id + ", as the catalog pages show it");
+        product.setPrice(new BigDecimal("1299.99"));
+        product.setOriginalPrice(new BigDecimal("1499.99"));
+        product.setDiscounted(true);
+        product.setDiscountPercentage(new BigDecimal("13.33"));
+        product.setCategory("Electronics");
+        product.setImage("https://images.example.com/products/" + id + ".jpg");
+        product.setStock(25);
+        product.setRating(new BigDecimal("4.5"));
+        product.setReviews(128);
+        product.setActive(true);
+        product.setCreatedAt(now.minusDays(30));
+        product.setUpdatedAt(now.minusDays(2));
+        return product;
+    }
+}
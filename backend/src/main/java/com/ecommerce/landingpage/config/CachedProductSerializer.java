@@ -0,0 +1,97 @@
+package com.ecommerce.landingpage.config;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.service.ProductJsonCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+// Wraps the bean serializer Jackson builds for ProductDto. When the request keeps every field,
+// the product is written as its cached JSON fragment (raw UTF-8 bytes copied into the output
+// buffer), rendering and caching it on a miss. Sparse fieldsets and views go through the bean
+// serializer as before.
+public class CachedProductSerializer extends StdSerializer<ProductDto> implements ContextualSerializer, ResolvableSerializer {
+    
+    private final JsonSerializer<Object> delegate;
+    private final ProductJsonCache cache;
+    
+    @SuppressWarnings("unchecked")
+    public CachedProductSerializer(JsonSerializer<?> delegate, ProductJsonCache cache) {
+        super(ProductDto.class);
+        this.delegate = (JsonSerializer<Object>) delegate;
+        this.cache = cache;
+    }
+    
+    @Override
+    public void serialize(ProductDto product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!fullView(product, provider)) {
+            delegate.serialize(product, gen, provider);
+            return;
+        }
+        
+        SerializableString fragment = cache.get(product);
+        if (fragment != null) {
+            gen.writeRawValue(fragment);
+            return;
+        }
+        
+        ObjectCodec codec = gen.getCodec();
+        if (codec == null) {
+            delegate.serialize(product, gen, provider);
+            return;
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator fragmentGen = codec.getFactory().createGenerator(writer)) {
+            fragmentGen.overrideStdFeatures(gen.getFeatureMask(), -1);
+            delegate.serialize(product, fragmentGen, provider);
+        }
+        String json = writer.toString();
+        cache.put(product, json);
+        gen.writeRawValue(json);
+    }
+    
+    @Override
+    public void serializeWithType(ProductDto product, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        delegate.serializeWithType(product, gen, provider, typeSer);
+    }
+    
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        if (delegate instanceof ContextualSerializer) {
+            JsonSerializer<?> contextual = ((ContextualSerializer) delegate).createContextual(provider, property);
+            if (contextual != delegate) {
+                return new CachedProductSerializer(contextual, cache);
+            }
+        }
+        return this;
+    }
+    
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer) {
+            ((ResolvableSerializer) delegate).resolve(provider);
+        }
+    }
+    
+    // True unless the request's filter provider narrows ProductDto's fields (see JacksonConfig)
+    private static boolean fullView(ProductDto product, SerializerProvider provider) {
+        if (provider.getActiveView() != null || provider.getFilterProvider() == null) {
+            return false;
+        }
+        PropertyFilter filter = provider.getFilterProvider().findPropertyFilter(ProductDto.FIELD_FILTER, product);
+        return filter == SimpleBeanPropertyFilter.serializeAll();
+    }
+}
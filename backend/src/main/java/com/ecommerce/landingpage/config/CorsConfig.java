@@ -62,6 +62,8 @@ public class CorsConfig {
         configuration.addExposedHeader("Origin");
         configuration.addExposedHeader("Access-Control-Request-Method");
         configuration.addExposedHeader("Access-Control-Request-Headers");
+        configuration.addExposedHeader("ETag");
+        configuration.addExposedHeader("Last-Modified");
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,94 @@
+package com.ecommerce.landingpage.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stand-in for replication when the replicas are local H2 databases (the "replicas" profile):
+// copies the primary into every replica with SCRIPT / RUNSCRIPT-style replay each
+// app.datasource.replicas.h2-sync-interval-ms. Replica reads therefore lag the primary by up
+// to one interval, which is exactly what the read-your-writes window has to cover.
+@Component
+@ConditionalOnProperty(name = "app.datasource.replicas.h2-sync-interval-ms")
+public class H2ReplicaSync {
+    
+    private static final Logger logger = LoggerFactory.getLogger(H2ReplicaSync.class);
+    
+    // Injected so the schema exists on the primary before the first copy
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+    
+    // Copies the schema before anything reads through a replica
+    @PostConstruct
+    void init() {
+        sync();
+    }
+    
+    // Copies the seed data before the catalog is first loaded on ApplicationReadyEvent
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        sync();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.h2-sync-interval-ms}")
+    public synchronized void sync() {
+        try {
+            List<String> script = new ArrayList<>();
+            try (Connection primary = connect(dataSourceProperties.determineUrl());
+                 Statement statement = primary.createStatement();
+                 ResultSet rs = statement.executeQuery("SCRIPT NOPASSWORDS")) {
+                while (rs.next()) {
+                    script.add(rs.getString(1));
+                }
+            }
+            
+            for (String url : replicaUrls) {
+                try (Connection replica = connect(url.trim()); Statement statement = replica.createStatement()) {
+                    // Readers wait rather than see a half-copied database
+                    statement.execute("SET EXCLUSIVE 1");
+                    try {
+                        statement.execute("DROP ALL OBJECTS");
+                        for (String sql : script) {
+                            statement.execute(sql);
+                        }
+                    } finally {
+                        statement.execute("SET EXCLUSIVE 0");
+                    }
+                }
+            }
+            logger.trace("Copied {} statements from the primary to {} replicas", script.size(), replicaUrls.size());
+        } catch (SQLException e) {
+            logger.warn("Failed to copy the primary to the H2 replicas, will retry", e);
+        }
+    }
+    
+    private Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.landingpage.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+
+// Hands Hibernate's second-level cache a Caffeine JCache manager built from hibernate-cache.conf.
+// Caffeine resolves the classpath: URI itself, the same way under tests, the IDE and the packaged
+// jar; Hibernate's own lookup of hibernate.javax.cache.uri only found it inside the jar. Hibernate
+// closes the manager when the session factory shuts down.
+@Configuration
+public class HibernateCacheConfig {
+    
+    private static final URI CACHE_CONFIG = URI.create("classpath:hibernate-cache.conf");
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CACHE_CONFIG, HibernateCacheConfig.class.getClassLoader()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.landingpage.config;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.service.ProductJsonCache;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+    
+    // ProductDto is annotated with a property filter; serialize it in full unless a
+    // controller supplies its own filter for the request
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer productFieldFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(ProductDto.FIELD_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+    
+    // Full-view ProductDtos are written from ProductJsonCache instead of being serialized field by field.
+    // Boot installs every Module bean into the application ObjectMapper.
+    @Bean
+    public Module productJsonCacheModule(ProductJsonCache productJsonCache) {
+        SimpleModule module = new SimpleModule("ProductJsonCache");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description, JsonSerializer<?> serializer) {
+                if (description.getBeanClass() == ProductDto.class) {
+                    return new CachedProductSerializer(serializer, productJsonCache);
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+}
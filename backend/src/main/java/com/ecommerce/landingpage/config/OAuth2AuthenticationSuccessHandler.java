@@ -1,16 +1,20 @@
 package com.ecommerce.landingpage.config;
 
 import com.ecommerce.landingpage.dto.AuthResponse;
+import com.ecommerce.landingpage.service.GuestCartStore;
 import com.ecommerce.landingpage.service.OAuth2Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
 
@@ -23,13 +27,20 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                       Authentication authentication) throws IOException, ServletException {
         
         if (authentication instanceof OAuth2AuthenticationToken) {
             try {
-                AuthResponse authResponse = oauth2Service.processOAuth2Login(authentication);
+                Cookie guestCart = WebUtils.getCookie(request, GuestCartStore.COOKIE_NAME);
+                AuthResponse authResponse = oauth2Service.processOAuth2Login(authentication, guestCart != null ? guestCart.getValue() : null);
+                if (guestCart != null) {
+                    response.addHeader(HttpHeaders.SET_COOKIE, guestCartStore.expiredCookie().toString());
+                }
                 
                 response.setContentType("application/json");
                 response.setCharacterEncoding("UTF-8");
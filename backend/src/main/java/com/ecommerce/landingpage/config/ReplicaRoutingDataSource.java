@@ -0,0 +1,115 @@
+package com.ecommerce.landingpage.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to the replicas (round robin) and everything else to the
+// primary. Must sit behind a LazyConnectionDataSourceProxy, so the lookup happens once the
+// transaction's read-only flag is known. After a user's write commits, that user's reads
+// (and any later read in the same HTTP request) stay on the primary for a short window,
+// covering replication lag so people see their own changes. The request pin lives in the
+// request's attributes, so it ends with the request rather than following a pooled worker
+// thread into someone else's.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    public static final String PRIMARY = "primary";
+    
+    private static final int MAX_TRACKED_USERS = 10_000;
+    
+    private static final String REQUEST_PINNED_UNTIL = ReplicaRoutingDataSource.class.getName() + ".pinnedUntil";
+    
+    private final List<String> replicaKeys;
+    private final long readYourWritesNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> userPinnedUntil = new ConcurrentHashMap<>();
+    
+    public ReplicaRoutingDataSource(List<String> replicaKeys, Duration readYourWritesWindow) {
+        this.replicaKeys = replicaKeys;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return PRIMARY;
+        }
+        
+        String user = currentUser();
+        if (replicaKeys.isEmpty() || isPinned(requestPinnedUntil()) || (user != null && isPinned(userPinnedUntil.get(user)))) {
+            logger.trace("Routing read-only transaction to primary (read-your-writes)");
+            return PRIMARY;
+        }
+        
+        String replica = replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+        logger.trace("Routing read-only transaction to {}", replica);
+        return replica;
+    }
+    
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+    
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long until = System.nanoTime() + readYourWritesNanos;
+                RequestAttributes request = RequestContextHolder.getRequestAttributes();
+                if (request != null) {
+                    request.setAttribute(REQUEST_PINNED_UNTIL, until, RequestAttributes.SCOPE_REQUEST);
+                }
+                if (user != null) {
+                    if (userPinnedUntil.size() >= MAX_TRACKED_USERS) {
+                        userPinnedUntil.values().removeIf(pinned -> !isPinned(pinned));
+                    }
+                    userPinnedUntil.put(user, until);
+                }
+            }
+        });
+    }
+    
+    private static boolean isPinned(Long until) {
+        return until != null && until - System.nanoTime() > 0;
+    }
+    
+    private static Long requestPinnedUntil() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null ? (Long) request.getAttribute(REQUEST_PINNED_UNTIL, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+    
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -6,12 +6,14 @@ import com.ecommerce.landingpage.dto.RefreshTokenRequest;
 import com.ecommerce.landingpage.dto.UserDto;
 import com.ecommerce.landingpage.model.User;
 import com.ecommerce.landingpage.service.AuthService;
+import com.ecommerce.landingpage.service.GuestCartStore;
 import com.ecommerce.landingpage.service.UserService;
 import com.ecommerce.landingpage.service.OAuth2Service;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +36,9 @@ public class AuthController {
     @Autowired
     private OAuth2Service oauth2Service;
     
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Creates a new user account")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody UserDto userDto) {
@@ -60,9 +65,17 @@ public class AuthController {
     
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticates user and returns JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> login(
+            @Valid @RequestBody AuthRequest authRequest,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestCartToken) {
         try {
-            AuthResponse response = authService.authenticate(authRequest);
+            AuthResponse response = authService.authenticate(authRequest, guestCartToken);
+            if (guestCartToken != null) {
+                // The guest cart has been merged into the user's cart
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, guestCartStore.expiredCookie().toString())
+                        .body(response);
+            }
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
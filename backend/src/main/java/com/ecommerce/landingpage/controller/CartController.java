@@ -0,0 +1,115 @@
+package com.ecommerce.landingpage.controller;
+
+import com.ecommerce.landingpage.dto.CartDto;
+import com.ecommerce.landingpage.dto.CartItemRequest;
+import com.ecommerce.landingpage.dto.CartOperationsRequest;
+import com.ecommerce.landingpage.service.AuthenticatedUser;
+import com.ecommerce.landingpage.service.CartService;
+import com.ecommerce.landingpage.service.CartService.CartOwner;
+import com.ecommerce.landingpage.service.GuestCartStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+// Signed-in users work on their own cart. Anyone else works on the guest cart named by the
+// GUEST_CART cookie, which the first change creates (setting the cookie) and sign-in merges.
+@RestController
+@RequestMapping("/cart")
+@Tag(name = "Cart", description = "Shopping cart APIs")
+public class CartController {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @GetMapping
+    @Operation(summary = "Get cart", description = "Returns the current user's or guest's cart priced at current catalog prices")
+    public ResponseEntity<CartDto> getCart(
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken) {
+        
+        CartOwner owner = authentication != null ? user(authentication) : CartOwner.guest(guestToken);
+        return ResponseEntity.ok(cartService.getCart(owner));
+    }
+    
+    @PostMapping("/items")
+    @Operation(summary = "Add to cart", description = "Adds the quantity to the product's line, creating it if needed. Returns 409 when the cart would hold more than is in stock")
+    public ResponseEntity<CartDto> addItem(
+            @Valid @RequestBody CartItemRequest request,
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken,
+            HttpServletResponse response) {
+        
+        return ResponseEntity.ok(cartService.addItem(owner(authentication, guestToken, response), request));
+    }
+    
+    @PutMapping("/items/{productId}")
+    @Operation(summary = "Set cart quantity", description = "Sets the product's quantity; 0 removes the line")
+    public ResponseEntity<CartDto> updateItem(
+            @PathVariable Long productId,
+            @RequestParam int quantity,
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken,
+            HttpServletResponse response) {
+        
+        return ResponseEntity.ok(cartService.updateItem(owner(authentication, guestToken, response), productId, quantity));
+    }
+    
+    @DeleteMapping("/items/{productId}")
+    @Operation(summary = "Remove from cart", description = "Removes the product's line from the cart")
+    public ResponseEntity<CartDto> removeItem(
+            @PathVariable Long productId,
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken,
+            HttpServletResponse response) {
+        
+        return ResponseEntity.ok(cartService.removeItem(owner(authentication, guestToken, response), productId));
+    }
+    
+    @PostMapping("/operations")
+    @Operation(summary = "Apply cart operations", description = "Applies an ordered list of ADD/UPDATE/REMOVE operations as one change: " +
+            "all succeed or none do. Retrying with the same Idempotency-Key returns the first response without applying them again")
+    public ResponseEntity<CartDto> applyOperations(
+            @Valid @RequestBody CartOperationsRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken,
+            HttpServletResponse response) {
+        
+        return ResponseEntity.ok(cartService.applyOperations(owner(authentication, guestToken, response), idempotencyKey, request.getOperations()));
+    }
+    
+    @DeleteMapping
+    @Operation(summary = "Clear cart", description = "Removes every line from the cart")
+    public ResponseEntity<CartDto> clearCart(
+            Authentication authentication,
+            @CookieValue(name = GuestCartStore.COOKIE_NAME, required = false) String guestToken,
+            HttpServletResponse response) {
+        
+        return ResponseEntity.ok(cartService.clearCart(owner(authentication, guestToken, response)));
+    }
+    
+    // Owner for a change; a guest without a live cart gets a new one and its cookie
+    private CartOwner owner(Authentication authentication, String guestToken, HttpServletResponse response) {
+        if (authentication != null) {
+            return user(authentication);
+        }
+        String token = guestCartStore.open(guestToken);
+        if (!token.equals(guestToken)) {
+            response.addHeader(HttpHeaders.SET_COOKIE, guestCartStore.cookie(token).toString());
+        }
+        return CartOwner.guest(token);
+    }
+    
+    private static CartOwner user(Authentication authentication) {
+        return CartOwner.user(AuthenticatedUser.idOf(authentication), authentication.getName());
+    }
+}
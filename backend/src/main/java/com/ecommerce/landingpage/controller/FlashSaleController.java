@@ -0,0 +1,64 @@
+package com.ecommerce.landingpage.controller;
+
+import com.ecommerce.landingpage.dto.FlashSaleDto;
+import com.ecommerce.landingpage.dto.FlashSalePurchaseResult;
+import com.ecommerce.landingpage.service.AuthenticatedUser;
+import com.ecommerce.landingpage.service.FlashSaleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/flash-sales")
+@Tag(name = "Flash Sales", description = "Flash sale APIs")
+public class FlashSaleController {
+    
+    @Autowired
+    private FlashSaleService flashSaleService;
+    
+    @GetMapping
+    @Operation(summary = "Get flash sales", description = "Returns upcoming and running flash sales with their remaining stock")
+    public ResponseEntity<List<FlashSaleDto>> getFlashSales() {
+        return ResponseEntity.ok(flashSaleService.getFlashSales());
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get flash sale by ID", description = "Returns a flash sale, including ended ones")
+    public ResponseEntity<FlashSaleDto> getFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(flashSaleService.getFlashSale(id));
+    }
+    
+    @PostMapping("/{id}/purchase")
+    @Operation(summary = "Buy from a flash sale", description = "Claims units at the sale price. Returns 409 when sold out " +
+            "and 429 when the sale is taking more attempts than it admits; retrying later may succeed")
+    public ResponseEntity<FlashSalePurchaseResult> purchase(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "1") int quantity,
+            Authentication authentication) {
+        
+        return ResponseEntity.ok(flashSaleService.purchase(id, AuthenticatedUser.idOf(authentication), authentication.getName(), quantity));
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create flash sale", description = "Schedules a sale and sets its allocation aside from the product's stock (Admin only)")
+    public ResponseEntity<FlashSaleDto> createFlashSale(@Valid @RequestBody FlashSaleDto flashSaleDto) {
+        FlashSaleDto createdFlashSale = flashSaleService.createFlashSale(flashSaleDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdFlashSale);
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "End flash sale", description = "Stops the sale now; unsold units return to the product's stock (Admin only)")
+    public ResponseEntity<FlashSaleDto> endFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(flashSaleService.endFlashSale(id));
+    }
+}
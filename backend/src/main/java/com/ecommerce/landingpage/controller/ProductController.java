@@ -1,54 +1,140 @@
 package com.ecommerce.landingpage.controller;
 
+import com.ecommerce.landingpage.dto.CursorPage;
+import com.ecommerce.landingpage.dto.ProductBatchRequest;
+import com.ecommerce.landingpage.dto.ProductBatchResult;
 import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.ProductSearchResult;
+import com.ecommerce.landingpage.dto.ProductSuggestion;
+import com.ecommerce.landingpage.dto.StockAdjustmentRequest;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.service.InventoryService;
+import com.ecommerce.landingpage.service.ProductChangeStream;
+import com.ecommerce.landingpage.service.ProductExportService;
+import com.ecommerce.landingpage.service.ProductFileFormat;
+import com.ecommerce.landingpage.service.ProductImportService;
 import com.ecommerce.landingpage.service.ProductService;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/products")
 @Tag(name = "Products", description = "Product management APIs")
 public class ProductController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ProductExportService productExportService;
+    
+    @Autowired
+    private ProductChangeStream productChangeStream;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
     @GetMapping
-    @Operation(summary = "Get all products", description = "Returns a paginated list of all active products")
-    public ResponseEntity<Page<ProductDto>> getAllProducts(
+    @Operation(summary = "Get all products", description = "Returns a paginated list of all active products. " +
+            "Passing 'after' (empty for the first page) switches to cursor paging and returns a nextCursor instead of totals")
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        
+        if (after != null) {
+            CursorPage<ProductDto> products = productService.getAllProductsAfter(after, pageSize(size), sort.iterator().next());
+            return withFields(products, view, fields);
+        }
+        
+        Pageable pageable = PageRequest.of(page, pageSize(size), sort);
         
         Page<ProductDto> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(products);
+        return withFields(products, view, fields);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Returns a specific product by its ID")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        if (notModified(request, productService.getProductETag(id), productService.getProductLastModified(id))) {
+            return null;
+        }
+        
         ProductDto product = productService.getProductById(id);
         return ResponseEntity.ok(product);
     }
     
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Resolves up to 500 product IDs in one call, " +
+            "in request order, listing unknown and inactive IDs separately")
+    public ResponseEntity<?> getProductsByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        ProductBatchResult result = productService.getProductsByIds(ids);
+        return withFields(result, view, fields);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs (POST)", description = "Same as GET /products/batch, for ID lists too long for a URL")
+    public ResponseEntity<?> getProductsByIdsPost(
+            @Valid @RequestBody ProductBatchRequest batchRequest,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        
+        ProductBatchResult result = productService.getProductsByIds(batchRequest.getIds());
+        return withFields(result, view, fields);
+    }
+    
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create new product", description = "Creates a new product (Admin only)")
@@ -57,6 +143,37 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import products", description = "Streams a CSV (with header row) or NDJSON body into the catalog " +
+            "(Admin only). The response is NDJSON: a progress line per batch, an error line per rejected row and a final summary")
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProductFileFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductFileFormat.CSV : ProductFileFormat.NDJSON;
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        productImportService.importProducts(request.getInputStream(), format, response.getOutputStream());
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export products", description = "Streams the whole catalog as NDJSON (default) or CSV (Admin only). " +
+            "Inactive products are included unless activeOnly=true")
+    public void exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            HttpServletResponse response) throws IOException {
+        
+        ProductFileFormat fileFormat = format.equalsIgnoreCase("csv") ? ProductFileFormat.CSV : ProductFileFormat.NDJSON;
+        response.setContentType(fileFormat == ProductFileFormat.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." +
+                (fileFormat == ProductFileFormat.CSV ? "csv" : "ndjson") + "\"");
+        productExportService.exportProducts(fileFormat, activeOnly, response.getOutputStream());
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update product", description = "Updates an existing product (Admin only)")
@@ -73,70 +190,229 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping("/stock/reserve")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reserve stock", description = "Atomically takes the given quantities out of stock (Admin only). " +
+            "Either every line is applied or none is; returns 409 if a product doesn't have enough stock")
+    public ResponseEntity<List<ProductDto>> reserveStock(@Valid @RequestBody StockAdjustmentRequest adjustmentRequest) {
+        return ResponseEntity.ok(inventoryService.reserve(adjustmentRequest.getItems()));
+    }
+    
+    @PostMapping("/stock/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Release stock", description = "Puts previously reserved quantities back into stock (Admin only)")
+    public ResponseEntity<List<ProductDto>> releaseStock(@Valid @RequestBody StockAdjustmentRequest adjustmentRequest) {
+        return ResponseEntity.ok(inventoryService.release(adjustmentRequest.getItems()));
+    }
+    
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category", description = "Returns products filtered by category")
-    public ResponseEntity<Page<ProductDto>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        if (after != null) {
+            CursorPage<ProductDto> products = productService.getProductsByCategoryAfter(category, after, pageSize(size));
+            return withFields(products, view, fields);
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, pageSize(size));
         Page<ProductDto> products = productService.getProductsByCategory(category, pageable);
-        return ResponseEntity.ok(products);
+        return withFields(products, view, fields);
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products with filters")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    @Operation(summary = "Search products", description = "Search products with filters. " +
+            "With facets=true the page is wrapped together with category, price, stock and discount counts. " +
+            "fuzzy=true also matches product names within one or two typos of the search term")
+    public ResponseEntity<?> searchProducts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String searchTerm,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.searchProducts(category, minPrice, maxPrice, searchTerm, pageable);
-        return ResponseEntity.ok(products);
+        Pageable pageable = PageRequest.of(page, pageSize(size));
+        
+        if (facets) {
+            ProductSearchResult result = productService.searchProductsWithFacets(category, minPrice, maxPrice, searchTerm, fuzzy, pageable);
+            return withFields(result, view, fields);
+        }
+        
+        Page<ProductDto> products = productService.searchProducts(category, minPrice, maxPrice, searchTerm, fuzzy, pageable);
+        return withFields(products, view, fields);
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Typeahead completions for a name or category prefix, " +
+            "best rated and most reviewed first")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        List<ProductSuggestion> suggestions = productService.suggestProducts(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+    
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream product changes", description = "Server-sent events for product creates, updates and deletes. " +
+            "Reconnect with Last-Event-ID (or 'since') to resume; a 'reload' event means changes were missed and the catalog should be refetched")
+    public SseEmitter streamProductChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String since) {
+        return productChangeStream.subscribe(lastEventId != null ? lastEventId : since);
     }
     
     @GetMapping("/categories")
     @Operation(summary = "Get all categories", description = "Returns a list of all product categories")
-    public ResponseEntity<List<String>> getAllCategories() {
+    public ResponseEntity<List<String>> getAllCategories(ServletWebRequest request) {
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
         List<String> categories = productService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
     
     @GetMapping("/in-stock")
     @Operation(summary = "Get in-stock products", description = "Returns products that are currently in stock")
-    public ResponseEntity<Page<ProductDto>> getInStockProducts(
+    public ResponseEntity<?> getInStockProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        if (after != null) {
+            CursorPage<ProductDto> products = productService.getInStockProductsAfter(after, pageSize(size));
+            return withFields(products, view, fields);
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, pageSize(size));
         Page<ProductDto> products = productService.getInStockProducts(pageable);
-        return ResponseEntity.ok(products);
+        return withFields(products, view, fields);
     }
     
     @GetMapping("/top-rated")
     @Operation(summary = "Get top rated products", description = "Returns products sorted by rating")
-    public ResponseEntity<Page<ProductDto>> getTopRatedProducts(
+    public ResponseEntity<?> getTopRatedProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        if (after != null) {
+            CursorPage<ProductDto> products = productService.getTopRatedProductsAfter(after, pageSize(size));
+            return withFields(products, view, fields);
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, pageSize(size));
         Page<ProductDto> products = productService.getTopRatedProducts(pageable);
-        return ResponseEntity.ok(products);
+        return withFields(products, view, fields);
     }
     
     @GetMapping("/discounted")
-    @Operation(summary = "Get discounted products", description = "Returns products that have discounts")
-    public ResponseEntity<Page<ProductDto>> getDiscountedProducts(
+    @Operation(summary = "Get discounted products", description = "Returns products that have discounts, " +
+            "optionally sorted by discountPercentage")
+    public ResponseEntity<?> getDiscountedProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
         
-        Pageable pageable = PageRequest.of(page, size);
+        if (catalogNotModified(request)) {
+            return null;
+        }
+        
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, pageSize(size), sort);
         Page<ProductDto> products = productService.getDiscountedProducts(pageable);
-        return ResponseEntity.ok(products);
+        return withFields(products, view, fields);
+    }
+    
+    // view=card trims list items to what a product card renders; fields= picks an explicit
+    // sparse fieldset. Either way the id is always kept.
+    private ResponseEntity<?> withFields(Object body, String view, String fields) {
+        Set<String> selected;
+        if (fields != null && !fields.isBlank()) {
+            selected = new HashSet<>();
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!name.isEmpty() && !ProductDto.FIELDS.contains(name)) {
+                    throw new BadRequestException("Unknown product field: " + name);
+                }
+                selected.add(name);
+            }
+            selected.add("id");
+        } else if ("card".equalsIgnoreCase(view)) {
+            selected = ProductDto.CARD_FIELDS;
+        } else if (view == null || "full".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(body);
+        } else {
+            throw new BadRequestException("Unknown view: " + view);
+        }
+        
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(ProductDto.FIELD_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        return ResponseEntity.ok(value);
+    }
+    
+    // Below one a page can't be read at all; above the cap it is clamped rather than refused
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    private boolean catalogNotModified(ServletWebRequest request) {
+        return notModified(request, productService.getCatalogETag(), productService.getCatalogLastModified());
+    }
+    
+    // Sets ETag/Last-Modified on the response and answers 304 when the client's copy is current.
+    // no-cache lets browsers keep the body but makes them revalidate it on every use.
+    private boolean notModified(ServletWebRequest request, String etag, long lastModified) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(etag, lastModified);
     }
 }
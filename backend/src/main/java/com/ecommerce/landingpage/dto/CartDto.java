@@ -0,0 +1,94 @@
+package com.ecommerce.landingpage.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CartDto {
+    
+    private List<CartItemDto> items;
+    private int totalItems;
+    private BigDecimal subtotal;
+    private BigDecimal discount;
+    private String discountCode;
+    private BigDecimal tax;
+    private BigDecimal shipping;
+    private BigDecimal total;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public CartDto() {}
+    
+    // Getters and Setters
+    public List<CartItemDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<CartItemDto> items) {
+        this.items = items;
+    }
+    
+    public int getTotalItems() {
+        return totalItems;
+    }
+    
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+    
+    public String getDiscountCode() {
+        return discountCode;
+    }
+    
+    public void setDiscountCode(String discountCode) {
+        this.discountCode = discountCode;
+    }
+    
+    public BigDecimal getTax() {
+        return tax;
+    }
+    
+    public void setTax(BigDecimal tax) {
+        this.tax = tax;
+    }
+    
+    public BigDecimal getShipping() {
+        return shipping;
+    }
+    
+    public void setShipping(BigDecimal shipping) {
+        this.shipping = shipping;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.landingpage.dto;
+
+import java.math.BigDecimal;
+
+// A cart line priced from the catalog. Lines for products that have since been deactivated
+// stay in the cart with available=false and no price, and don't count towards the totals.
+public class CartItemDto {
+    
+    private Long productId;
+    private String name;
+    private String image;
+    private BigDecimal price;
+    private Integer quantity;
+    private BigDecimal lineTotal;
+    private boolean available;
+    
+    // Constructors
+    public CartItemDto() {}
+    
+    public CartItemDto(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getImage() {
+        return image;
+    }
+    
+    public void setImage(String image) {
+        this.image = image;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+    
+    public void setLineTotal(BigDecimal lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.landingpage.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+// One step of a batched cart change. ADD adds quantity to the line, UPDATE sets it (0 removes
+// the line) and REMOVE drops the line, ignoring quantity.
+public class CartOperation {
+    
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+    
+    @NotNull(message = "Operation type is required")
+    private Type type;
+    
+    @NotNull(message = "Product id is required")
+    private Long productId;
+    
+    @PositiveOrZero(message = "Quantity cannot be negative")
+    private Integer quantity;
+    
+    // Constructors
+    public CartOperation() {}
+    
+    public CartOperation(Type type, Long productId, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
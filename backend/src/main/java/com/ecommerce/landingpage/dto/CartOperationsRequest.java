@@ -0,0 +1,28 @@
+package com.ecommerce.landingpage.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CartOperationsRequest {
+    
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid CartOperation> operations;
+    
+    // Constructors
+    public CartOperationsRequest() {}
+    
+    public CartOperationsRequest(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+    
+    // Getters and Setters
+    public List<CartOperation> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+}
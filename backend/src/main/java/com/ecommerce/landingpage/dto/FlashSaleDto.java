@@ -0,0 +1,175 @@
+package com.ecommerce.landingpage.dto;
+
+import com.ecommerce.landingpage.model.FlashSale;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class FlashSaleDto {
+    
+    public static final String UPCOMING = "upcoming";
+    public static final String ACTIVE = "active";
+    public static final String SOLD_OUT = "sold_out";
+    public static final String ENDED = "ended";
+    
+    private Long id;
+    
+    @NotNull(message = "Product id is required")
+    private Long productId;
+    
+    private String productName;
+    
+    @NotBlank(message = "Title is required")
+    private String title;
+    
+    private String description;
+    
+    @NotNull(message = "Sale price is required")
+    @Positive(message = "Sale price must be positive")
+    private BigDecimal salePrice;
+    
+    private BigDecimal originalPrice;
+    
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startTime;
+    
+    @NotNull(message = "End time is required")
+    private LocalDateTime endTime;
+    
+    @NotNull(message = "Allocated stock is required")
+    @Positive(message = "Allocated stock must be positive")
+    private Integer allocatedStock;
+    
+    private Integer remainingStock;
+    
+    @Positive(message = "Per-customer limit must be positive")
+    private Integer perCustomerLimit;
+    
+    private String status;
+    
+    // Constructors
+    public FlashSaleDto() {}
+    
+    public FlashSaleDto(FlashSale flashSale) {
+        this.id = flashSale.getId();
+        this.productId = flashSale.getProduct().getId();
+        this.productName = flashSale.getProduct().getName();
+        this.title = flashSale.getTitle();
+        this.description = flashSale.getDescription();
+        this.salePrice = flashSale.getSalePrice();
+        this.originalPrice = flashSale.getProduct().getPrice();
+        this.startTime = flashSale.getStartTime();
+        this.endTime = flashSale.getEndTime();
+        this.allocatedStock = flashSale.getAllocatedStock();
+        this.remainingStock = flashSale.getAllocatedStock() - flashSale.getSoldCount();
+        this.perCustomerLimit = flashSale.getPerCustomerLimit();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public BigDecimal getSalePrice() {
+        return salePrice;
+    }
+    
+    public void setSalePrice(BigDecimal salePrice) {
+        this.salePrice = salePrice;
+    }
+    
+    public BigDecimal getOriginalPrice() {
+        return originalPrice;
+    }
+    
+    public void setOriginalPrice(BigDecimal originalPrice) {
+        this.originalPrice = originalPrice;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public Integer getAllocatedStock() {
+        return allocatedStock;
+    }
+    
+    public void setAllocatedStock(Integer allocatedStock) {
+        this.allocatedStock = allocatedStock;
+    }
+    
+    public Integer getRemainingStock() {
+        return remainingStock;
+    }
+    
+    public void setRemainingStock(Integer remainingStock) {
+        this.remainingStock = remainingStock;
+    }
+    
+    public Integer getPerCustomerLimit() {
+        return perCustomerLimit;
+    }
+    
+    public void setPerCustomerLimit(Integer perCustomerLimit) {
+        this.perCustomerLimit = perCustomerLimit;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.landingpage.dto;
+
+import java.math.BigDecimal;
+
+public class FlashSalePurchaseResult {
+    
+    private Long flashSaleId;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private Integer remainingStock;
+    
+    // Constructors
+    public FlashSalePurchaseResult() {}
+    
+    public FlashSalePurchaseResult(Long flashSaleId, Long productId, Integer quantity, BigDecimal unitPrice, Integer remainingStock) {
+        this.flashSaleId = flashSaleId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.remainingStock = remainingStock;
+    }
+    
+    // Getters and Setters
+    public Long getFlashSaleId() {
+        return flashSaleId;
+    }
+    
+    public void setFlashSaleId(Long flashSaleId) {
+        this.flashSaleId = flashSaleId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+    
+    public Integer getRemainingStock() {
+        return remainingStock;
+    }
+    
+    public void setRemainingStock(Integer remainingStock) {
+        this.remainingStock = remainingStock;
+    }
+}
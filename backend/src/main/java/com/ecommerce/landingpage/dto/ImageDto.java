@@ -0,0 +1,54 @@
+package com.ecommerce.landingpage.dto;
+
+import java.util.Map;
+
+public class ImageDto {
+    
+    private String url;
+    private Map<Integer, String> thumbnails;
+    private String contentType;
+    private long size;
+    
+    // Constructors
+    public ImageDto() {}
+    
+    public ImageDto(String url, Map<Integer, String> thumbnails, String contentType, long size) {
+        this.url = url;
+        this.thumbnails = thumbnails;
+        this.contentType = contentType;
+        this.size = size;
+    }
+    
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public Map<Integer, String> getThumbnails() {
+        return thumbnails;
+    }
+    
+    public void setThumbnails(Map<Integer, String> thumbnails) {
+        this.thumbnails = thumbnails;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public long getSize() {
+        return size;
+    }
+    
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
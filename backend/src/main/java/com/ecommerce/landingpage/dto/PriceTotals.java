@@ -0,0 +1,44 @@
+package com.ecommerce.landingpage.dto;
+
+import java.math.BigDecimal;
+
+// Totals from PricingEngine, held in cents and handed out as amounts
+public final class PriceTotals {
+    
+    private final long subtotal;
+    private final long discount;
+    private final long tax;
+    private final long shipping;
+    private final long total;
+    
+    // Constructors
+    public PriceTotals(long subtotal, long discount, long tax, long shipping, long total) {
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.tax = tax;
+        this.shipping = shipping;
+        this.total = total;
+    }
+    
+    // Getters
+    public BigDecimal getSubtotal() {
+        return BigDecimal.valueOf(subtotal, 2);
+    }
+    
+    // The discount as applied: never below zero or above the subtotal
+    public BigDecimal getDiscount() {
+        return BigDecimal.valueOf(discount, 2);
+    }
+    
+    public BigDecimal getTax() {
+        return BigDecimal.valueOf(tax, 2);
+    }
+    
+    public BigDecimal getShipping() {
+        return BigDecimal.valueOf(shipping, 2);
+    }
+    
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(total, 2);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.landingpage.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class ProductBatchRequest {
+    
+    @NotEmpty(message = "At least one product id is required")
+    private List<Long> ids;
+    
+    // Constructors
+    public ProductBatchRequest() {}
+    
+    public ProductBatchRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
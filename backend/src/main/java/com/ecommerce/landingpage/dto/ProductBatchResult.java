@@ -0,0 +1,45 @@
+package com.ecommerce.landingpage.dto;
+
+import java.util.List;
+
+public class ProductBatchResult {
+    
+    // In request order, without duplicates
+    private List<ProductDto> products;
+    private List<Long> missing;
+    private List<Long> inactive;
+    
+    // Constructors
+    public ProductBatchResult() {}
+    
+    public ProductBatchResult(List<ProductDto> products, List<Long> missing, List<Long> inactive) {
+        this.products = products;
+        this.missing = missing;
+        this.inactive = inactive;
+    }
+    
+    // Getters and Setters
+    public List<ProductDto> getProducts() {
+        return products;
+    }
+    
+    public void setProducts(List<ProductDto> products) {
+        this.products = products;
+    }
+    
+    public List<Long> getMissing() {
+        return missing;
+    }
+    
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+    
+    public List<Long> getInactive() {
+        return inactive;
+    }
+    
+    public void setInactive(List<Long> inactive) {
+        this.inactive = inactive;
+    }
+}
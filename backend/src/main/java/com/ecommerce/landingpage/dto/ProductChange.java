@@ -0,0 +1,74 @@
+package com.ecommerce.landingpage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+// One entry of the product change feed. "reload" entries carry no product and tell consumers
+// to refetch the catalog, e.g. after a bulk import.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChange {
+    
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RELOAD = "reload";
+    
+    private String id;
+    private String type;
+    private Long productId;
+    private ProductDto product;
+    private Instant timestamp;
+    
+    // Constructors
+    public ProductChange() {}
+    
+    public ProductChange(String id, String type, Long productId, ProductDto product, Instant timestamp) {
+        this.id = id;
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.timestamp = timestamp;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public ProductDto getProduct() {
+        return product;
+    }
+    
+    public void setProduct(ProductDto product) {
+        this.product = product;
+    }
+    
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
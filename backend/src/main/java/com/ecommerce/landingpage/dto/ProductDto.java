@@ -1,6 +1,7 @@
 package com.ecommerce.landingpage.dto;
 
 import com.ecommerce.landingpage.model.Product;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -8,9 +9,23 @@ import jakarta.validation.constraints.PositiveOrZero;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 
+// Serialized through the FIELD_FILTER property filter so list endpoints can return sparse
+// fieldsets; unless a request selects fields, JacksonConfig's default keeps every property.
+@JsonFilter(ProductDto.FIELD_FILTER)
 public class ProductDto {
     
+    public static final String FIELD_FILTER = "productFields";
+    
+    public static final Set<String> FIELDS = Set.of("id", "name", "description", "price", "originalPrice",
+            "discounted", "discountPercentage", "category", "image", "stock", "rating", "reviews", "role", "active",
+            "createdAt", "updatedAt");
+    
+    // What a product card shows: everything except description, flags and timestamps
+    public static final Set<String> CARD_FIELDS = Set.of("id", "name", "price", "originalPrice", "discounted",
+            "discountPercentage", "category", "image", "stock", "rating", "reviews", "role");
+    
     private Long id;
     
     @NotBlank(message = "Product name is required")
@@ -25,6 +40,10 @@ public class ProductDto {
     @Positive(message = "Original price must be positive")
     private BigDecimal originalPrice;
     
+    // Read-only, maintained on the entity from price and originalPrice
+    private boolean discounted;
+    private BigDecimal discountPercentage;
+    
     @NotBlank(message = "Category is required")
     private String category;
     
@@ -54,6 +73,8 @@ public class ProductDto {
         this.description = product.getDescription();
         this.price = product.getPrice();
         this.originalPrice = product.getOriginalPrice();
+        this.discounted = product.hasDiscount();
+        this.discountPercentage = product.getDiscountPercentage();
         this.category = product.getCategory();
         this.image = product.getImage();
         this.stock = product.getStock();
@@ -106,6 +127,22 @@ public class ProductDto {
         this.originalPrice = originalPrice;
     }
     
+    public boolean isDiscounted() {
+        return discounted;
+    }
+    
+    public void setDiscounted(boolean discounted) {
+        this.discounted = discounted;
+    }
+    
+    public BigDecimal getDiscountPercentage() {
+        return discountPercentage;
+    }
+    
+    public void setDiscountPercentage(BigDecimal discountPercentage) {
+        this.discountPercentage = discountPercentage;
+    }
+    
     public String getCategory() {
         return category;
     }
@@ -0,0 +1,101 @@
+package com.ecommerce.landingpage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// One line of the NDJSON report streamed back by the bulk import endpoint
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportStatus {
+    
+    public static final String PROGRESS = "progress";
+    public static final String ERROR = "error";
+    public static final String DONE = "done";
+    public static final String ABORTED = "aborted";
+    
+    private String status;
+    private Long line;
+    private List<String> errors;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+    private Long elapsedMs;
+    
+    // Constructors
+    public ProductImportStatus() {}
+    
+    public static ProductImportStatus error(long line, List<String> errors) {
+        ProductImportStatus status = new ProductImportStatus();
+        status.status = ERROR;
+        status.line = line;
+        status.errors = errors;
+        return status;
+    }
+    
+    public static ProductImportStatus counts(String type, long processed, long imported, long failed, long elapsedMs) {
+        ProductImportStatus status = new ProductImportStatus();
+        status.status = type;
+        status.processed = processed;
+        status.imported = imported;
+        status.failed = failed;
+        status.elapsedMs = elapsedMs;
+        return status;
+    }
+    
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Long getLine() {
+        return line;
+    }
+    
+    public void setLine(Long line) {
+        this.line = line;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+    
+    public Long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+    
+    public Long getImported() {
+        return imported;
+    }
+    
+    public void setImported(Long imported) {
+        this.imported = imported;
+    }
+    
+    public Long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(Long failed) {
+        this.failed = failed;
+    }
+    
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+    
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.landingpage.dto;
+
+import org.springframework.data.domain.Page;
+
+public class ProductSearchResult {
+    
+    private Page<ProductDto> results;
+    private SearchFacets facets;
+    
+    // Constructors
+    public ProductSearchResult() {}
+    
+    public ProductSearchResult(Page<ProductDto> results, SearchFacets facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+    
+    // Getters and Setters
+    public Page<ProductDto> getResults() {
+        return results;
+    }
+    
+    public void setResults(Page<ProductDto> results) {
+        this.results = results;
+    }
+    
+    public SearchFacets getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(SearchFacets facets) {
+        this.facets = facets;
+    }
+}
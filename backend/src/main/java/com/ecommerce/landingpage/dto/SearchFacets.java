@@ -0,0 +1,66 @@
+package com.ecommerce.landingpage.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchFacets {
+    
+    private Map<String, Long> categories;
+    private List<PriceBucket> priceBuckets;
+    private long inStock;
+    private long outOfStock;
+    private long discounted;
+    private long notDiscounted;
+    
+    // Constructors
+    public SearchFacets() {}
+    
+    // Getters and Setters
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+    
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+    
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+    
+    public long getInStock() {
+        return inStock;
+    }
+    
+    public void setInStock(long inStock) {
+        this.inStock = inStock;
+    }
+    
+    public long getOutOfStock() {
+        return outOfStock;
+    }
+    
+    public void setOutOfStock(long outOfStock) {
+        this.outOfStock = outOfStock;
+    }
+    
+    public long getDiscounted() {
+        return discounted;
+    }
+    
+    public void setDiscounted(long discounted) {
+        this.discounted = discounted;
+    }
+    
+    public long getNotDiscounted() {
+        return notDiscounted;
+    }
+    
+    public void setNotDiscounted(long notDiscounted) {
+        this.notDiscounted = notDiscounted;
+    }
+}
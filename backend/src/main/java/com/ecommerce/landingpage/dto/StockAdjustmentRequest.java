@@ -0,0 +1,28 @@
+package com.ecommerce.landingpage.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class StockAdjustmentRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid StockAdjustment> items;
+    
+    // Constructors
+    public StockAdjustmentRequest() {}
+    
+    public StockAdjustmentRequest(List<StockAdjustment> items) {
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public List<StockAdjustment> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<StockAdjustment> items) {
+        this.items = items;
+    }
+}
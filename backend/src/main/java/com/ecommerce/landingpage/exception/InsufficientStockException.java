@@ -0,0 +1,31 @@
+package com.ecommerce.landingpage.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+    
+    private final Long productId;
+    private final int requested;
+    private final int available;
+    
+    public InsufficientStockException(Long productId, int requested, int available) {
+        super("Insufficient stock for product " + productId + ": requested " + requested + ", available " + available);
+        this.productId = productId;
+        this.requested = requested;
+        this.available = available;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+    
+    public int getAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,185 @@
+package com.ecommerce.landingpage.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A sale window on one product. allocatedStock is taken out of the product's stock when the
+// sale is created; whatever is unsold goes back once the sale has ended and is settled.
+@Entity
+@Table(name = "flash_sales", indexes = {
+    @Index(name = "idx_flash_sales_settled", columnList = "settled, end_time")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class FlashSale {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @NotBlank
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @NotNull
+    @Positive
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal salePrice;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+    
+    @NotNull
+    @Positive
+    @Column(nullable = false)
+    private Integer allocatedStock;
+    
+    // Units sold and recorded in flash_sale_purchases; lags the in-memory count by one flush
+    @PositiveOrZero
+    @Column(nullable = false)
+    private Integer soldCount = 0;
+    
+    @Positive
+    @Column(nullable = false)
+    private Integer perCustomerLimit = 1;
+    
+    // Set once the sale has ended and its unsold units are back in the product's stock
+    @Column(nullable = false)
+    private boolean settled = false;
+    
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public FlashSale() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Product getProduct() {
+        return product;
+    }
+    
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public BigDecimal getSalePrice() {
+        return salePrice;
+    }
+    
+    public void setSalePrice(BigDecimal salePrice) {
+        this.salePrice = salePrice;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public Integer getAllocatedStock() {
+        return allocatedStock;
+    }
+    
+    public void setAllocatedStock(Integer allocatedStock) {
+        this.allocatedStock = allocatedStock;
+    }
+    
+    public Integer getSoldCount() {
+        return soldCount;
+    }
+    
+    public void setSoldCount(Integer soldCount) {
+        this.soldCount = soldCount;
+    }
+    
+    public Integer getPerCustomerLimit() {
+        return perCustomerLimit;
+    }
+    
+    public void setPerCustomerLimit(Integer perCustomerLimit) {
+        this.perCustomerLimit = perCustomerLimit;
+    }
+    
+    public boolean isSettled() {
+        return settled;
+    }
+    
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
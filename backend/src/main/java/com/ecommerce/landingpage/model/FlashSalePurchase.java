@@ -0,0 +1,88 @@
+package com.ecommerce.landingpage.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One successful flash-sale purchase. Rows are written in batches by FlashSaleService, with
+// plain JDBC, after the in-memory counters have already granted the units.
+@Entity
+@Table(name = "flash_sale_purchases", indexes = {
+    @Index(name = "idx_flash_sale_purchases_sale", columnList = "flash_sale_id, user_id")
+})
+public class FlashSalePurchase {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flash_sale_id", nullable = false)
+    private FlashSale flashSale;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+    
+    @Column(nullable = false)
+    private LocalDateTime purchasedAt;
+    
+    // Constructors
+    public FlashSalePurchase() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public FlashSale getFlashSale() {
+        return flashSale;
+    }
+    
+    public void setFlashSale(FlashSale flashSale) {
+        this.flashSale = flashSale;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public LocalDateTime getPurchasedAt() {
+        return purchasedAt;
+    }
+    
+    public void setPurchasedAt(LocalDateTime purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.landingpage.model;
 
+import com.ecommerce.landingpage.dto.PriceTotals;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Function;
 
 @Entity
 @Table(name = "orders")
@@ -45,6 +47,10 @@ public class Order {
     @Column(precision = 10, scale = 2)
     private BigDecimal discount = BigDecimal.ZERO;
     
+    // What pricing actually took off: the requested discount, clamped to the subtotal
+    @Column(precision = 10, scale = 2)
+    private BigDecimal appliedDiscount = BigDecimal.ZERO;
+    
     @Column(precision = 10, scale = 2)
     private BigDecimal total = BigDecimal.ZERO;
     
@@ -149,6 +155,14 @@ public class Order {
         this.discount = discount;
     }
     
+    public BigDecimal getAppliedDiscount() {
+        return appliedDiscount;
+    }
+    
+    public void setAppliedDiscount(BigDecimal appliedDiscount) {
+        this.appliedDiscount = appliedDiscount;
+    }
+    
     public BigDecimal getTotal() {
         return total;
     }
@@ -214,27 +228,17 @@ public class Order {
                 .sum();
     }
     
-    public void calculateTotals() {
-        // Calculate subtotal
-        this.subtotal = items.stream()
-                .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Apply discount
-        BigDecimal discountedSubtotal = this.subtotal.subtract(this.discount);
-        
-        // Calculate tax (8% tax rate)
-        this.tax = discountedSubtotal.multiply(new BigDecimal("0.08"));
-        
-        // Calculate shipping (free over $50, otherwise $5.99)
-        if (discountedSubtotal.compareTo(new BigDecimal("50")) >= 0) {
-            this.shipping = BigDecimal.ZERO;
-        } else {
-            this.shipping = new BigDecimal("5.99");
-        }
-        
-        // Calculate total
-        this.total = discountedSubtotal.add(this.tax).add(this.shipping);
+    // Pricing is PricingEngine::price, which owns the discount, tax and shipping rules
+    public void calculateTotals(Function<Order, PriceTotals> pricing) {
+        applyTotals(pricing.apply(this));
+    }
+    
+    public void applyTotals(PriceTotals totals) {
+        this.subtotal = totals.getSubtotal();
+        this.appliedDiscount = totals.getDiscount();
+        this.tax = totals.getTax();
+        this.shipping = totals.getShipping();
+        this.total = totals.getTotal();
     }
     
     public boolean canBeCancelled() {
@@ -5,20 +5,28 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_discount", columnList = "active, discounted, discount_percentage")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @EntityListeners(AuditingEntityListener.class)
 public class Product {
     
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,6 +47,13 @@ public class Product {
     @Column(precision = 10, scale = 2)
     private BigDecimal originalPrice;
     
+    // Derived from price/originalPrice whenever either changes, so discount queries can use an index
+    @Column(nullable = false)
+    private boolean discounted = false;
+    
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal discountPercentage = BigDecimal.ZERO;
+    
     @NotBlank
     @Column(nullable = false)
     private String category;
@@ -71,6 +86,11 @@ public class Product {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Bumped by every write, including InventoryService's conditional stock updates
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+    
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<CartItem> cartItems = new HashSet<>();
     
@@ -124,6 +144,7 @@ public class Product {
     
     public void setPrice(BigDecimal price) {
         this.price = price;
+        refreshDiscount();
     }
     
     public BigDecimal getOriginalPrice() {
@@ -132,6 +153,7 @@ public class Product {
     
     public void setOriginalPrice(BigDecimal originalPrice) {
         this.originalPrice = originalPrice;
+        refreshDiscount();
     }
     
     public String getCategory() {
@@ -206,6 +228,14 @@ public class Product {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Set<CartItem> getCartItems() {
         return cartItems;
     }
@@ -240,16 +270,22 @@ public class Product {
     }
     
     public boolean hasDiscount() {
-        return this.originalPrice != null && this.originalPrice.compareTo(this.price) > 0;
+        return this.discounted;
     }
     
     public BigDecimal getDiscountPercentage() {
-        if (!hasDiscount()) {
-            return BigDecimal.ZERO;
-        }
-        return this.originalPrice.subtract(this.price)
-                .divide(this.originalPrice, 4, BigDecimal.ROUND_HALF_UP)
-                .multiply(new BigDecimal("100"));
+        return this.discountPercentage;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void refreshDiscount() {
+        this.discounted = this.price != null && this.originalPrice != null && this.originalPrice.compareTo(this.price) > 0;
+        this.discountPercentage = this.discounted
+                ? this.originalPrice.subtract(this.price)
+                        .multiply(ONE_HUNDRED)
+                        .divide(this.originalPrice, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
     }
     
     public String getFormattedPrice() {
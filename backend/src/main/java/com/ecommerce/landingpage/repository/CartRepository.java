@@ -2,9 +2,15 @@ package com.ecommerce.landingpage.repository;
 
 import com.ecommerce.landingpage.model.Cart;
 import com.ecommerce.landingpage.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +21,17 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
     
     void deleteByUser(User user);
+    
+    // [cart id, user id] of carts not updated since the cutoff, the next page after afterId by id
+    @Query("SELECT c.id, c.user.id FROM Cart c WHERE c.id > ?1 AND c.updatedAt < ?2 ORDER BY c.id")
+    List<Object[]> findStaleCartIds(Long afterId, LocalDateTime cutoff, Pageable pageable);
+    
+    // The staleness check is repeated so a cart updated since it was scanned survives
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN (SELECT c.id FROM Cart c WHERE c.id IN ?1 AND c.updatedAt < ?2)")
+    int deleteItemsOfStaleCarts(Collection<Long> cartIds, LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN ?1 AND c.updatedAt < ?2")
+    int deleteStaleCarts(Collection<Long> cartIds, LocalDateTime cutoff);
 }
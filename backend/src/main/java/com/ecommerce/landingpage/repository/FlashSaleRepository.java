@@ -0,0 +1,15 @@
+package com.ecommerce.landingpage.repository;
+
+import com.ecommerce.landingpage.model.FlashSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FlashSaleRepository extends JpaRepository<FlashSale, Long> {
+    
+    @Query("SELECT s FROM FlashSale s JOIN FETCH s.product WHERE s.settled = false ORDER BY s.startTime")
+    List<FlashSale> findUnsettledWithProduct();
+}
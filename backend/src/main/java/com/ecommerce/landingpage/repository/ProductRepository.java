@@ -4,18 +4,35 @@ import com.ecommerce.landingpage.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Page<Product> findByActiveTrue(Pageable pageable);
     
+    List<Product> findByActiveTrueOrderByIdAsc();
+    
+    // Forward-only read for exports; must be consumed inside a transaction and closed.
+    // With MySQL the fetch size only streams when the URL sets useCursorFetch=true.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Product p WHERE (:activeOnly = false OR p.active = true) ORDER BY p.id")
+    Stream<Product> streamAllOrderById(@Param("activeOnly") boolean activeOnly);
+    
     Page<Product> findByCategoryAndActiveTrue(String category, Pageable pageable);
     
     Page<Product> findByActiveTrueAndPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
@@ -37,11 +54,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.active = true")
     List<String> findAllCategories();
     
+    // Rows of [id, price], for pricing lines without loading their products
+    @Query("SELECT p.id, p.price FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findPricesByIdIn(@Param("ids") Collection<Long> ids);
+    
     Page<Product> findByActiveTrueAndStockGreaterThan(Integer stock, Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.stock > 0 ORDER BY p.rating DESC")
     Page<Product> findTopRatedProducts(Pageable pageable);
     
-    @Query("SELECT p FROM Product p WHERE p.active = true AND p.originalPrice IS NOT NULL AND p.originalPrice > p.price")
+    @Query("SELECT p FROM Product p WHERE p.active = true AND p.discounted = true")
     Page<Product> findDiscountedProducts(Pageable pageable);
 }
@@ -0,0 +1,128 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.repository.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Deletes carts not updated for app.carts.sweep.max-age, with their items. The scan walks the
+// carts table by id in chunks of chunk-size; each chunk is deleted with two set-based
+// statements in its own short transaction, and the sweeper pauses between chunks so it can run
+// alongside live traffic. Carts held in CartStore are skipped, and a cart updated after it was
+// scanned fails the delete's staleness check and stays.
+@Component
+public class AbandonedCartSweeper {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+    
+    @Autowired
+    private CartRepository cartRepository;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.carts.sweep.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.carts.sweep.max-age:30d}")
+    private Duration maxAge;
+    
+    @Value("${app.carts.sweep.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.carts.sweep.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+    
+    private Counter scannedCarts;
+    private Counter deletedCarts;
+    private Counter deletedItems;
+    private Timer sweepTimer;
+    private volatile double lastRowsPerSecond;
+    
+    @PostConstruct
+    void init() {
+        scannedCarts = Counter.builder("carts.sweep.scanned").baseUnit("rows").register(meterRegistry);
+        deletedCarts = Counter.builder("carts.sweep.deleted").tag("table", "carts").baseUnit("rows").register(meterRegistry);
+        deletedItems = Counter.builder("carts.sweep.deleted").tag("table", "cart_items").baseUnit("rows").register(meterRegistry);
+        sweepTimer = Timer.builder("carts.sweep.duration").register(meterRegistry);
+        Gauge.builder("carts.sweep.throughput", this, sweeper -> sweeper.lastRowsPerSecond)
+                .description("Rows deleted per second by the last sweep")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.carts.sweep.interval-ms:3600000}", initialDelayString = "${app.carts.sweep.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        long started = System.nanoTime();
+        long afterId = 0;
+        long carts = 0;
+        long items = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = cartRepository.findStaleCartIds(afterId, cutoff, PageRequest.of(0, chunkSize));
+                List<Long> cartIds = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    if (!cartStore.isLoaded((Long) row[1])) {
+                        cartIds.add((Long) row[0]);
+                    }
+                }
+                scannedCarts.increment(rows.size());
+                
+                if (!cartIds.isEmpty()) {
+                    int[] deleted = transactionTemplate.execute(status -> new int[] {
+                            cartRepository.deleteItemsOfStaleCarts(cartIds, cutoff),
+                            cartRepository.deleteStaleCarts(cartIds, cutoff)});
+                    items += deleted[0];
+                    carts += deleted[1];
+                    deletedItems.increment(deleted[0]);
+                    deletedCarts.increment(deleted[1]);
+                }
+                
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+                if (chunkPauseMs > 0) {
+                    Thread.sleep(chunkPauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Cart sweep stopped after cart {}, the next run starts over", afterId, e);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastRowsPerSecond = (carts + items) * 1e9 / Math.max(elapsed, 1);
+            if (carts > 0) {
+                logger.info("Swept {} abandoned carts and {} items in {} ms", carts, items, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+}
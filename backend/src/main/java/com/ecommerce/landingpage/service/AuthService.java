@@ -30,7 +30,11 @@ public class AuthService {
     @Autowired
     private RefreshTokenService refreshTokenService;
     
-    public AuthResponse authenticate(AuthRequest authRequest) {
+    @Autowired
+    private CartService cartService;
+    
+    // guestCartToken, when present, names a guest cart to merge into the user's cart
+    public AuthResponse authenticate(AuthRequest authRequest, String guestCartToken) {
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
                 authRequest.getUsernameOrEmail(),
@@ -49,6 +53,10 @@ public class AuthService {
         // Create refresh token
         String refreshToken = refreshTokenService.createRefreshToken(user).getToken();
         
+        if (guestCartToken != null) {
+            cartService.mergeGuestCart(guestCartToken, user.getId());
+        }
+        
         return new AuthResponse(
             token,
             refreshToken,
@@ -0,0 +1,32 @@
+package com.ecommerce.landingpage.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// The principal CustomUserDetailsService builds: Spring's User plus the database id, so code
+// handling a signed-in request can key on the user without looking them up again
+public class AuthenticatedUser extends User {
+    
+    private final Long id;
+    
+    public AuthenticatedUser(Long id, String username, String password, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    // The user id behind the authentication, or null for principals built elsewhere
+    public static Long idOf(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
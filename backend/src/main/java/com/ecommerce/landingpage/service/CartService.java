@@ -0,0 +1,382 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.CartDto;
+import com.ecommerce.landingpage.dto.CartItemDto;
+import com.ecommerce.landingpage.dto.CartItemRequest;
+import com.ecommerce.landingpage.dto.CartOperation;
+import com.ecommerce.landingpage.dto.PriceTotals;
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.exception.InsufficientStockException;
+import com.ecommerce.landingpage.exception.ResourceNotFoundException;
+import com.ecommerce.landingpage.model.User;
+import com.ecommerce.landingpage.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Shopping carts priced from the catalog snapshot. A signed-in user's cart is held in CartStore,
+// a guest's in GuestCartStore. Signed-in requests carry the user id in their principal (see
+// AuthenticatedUser), so nothing here waits for the database except loading a user's cart that
+// isn't in memory yet, or resolving an owner that came without an id.
+@Service
+public class CartService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+    
+    private static final int MAX_OPERATIONS = 100;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final long MAX_IDEMPOTENT_RESPONSES = 100_000;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${app.carts.idempotency-ttl:24h}")
+    private Duration idempotencyTtl;
+    
+    // Successful batched-operation responses by owner and idempotency key
+    private Cache<String, IdempotentResponse> idempotentResponses;
+    
+    @PostConstruct
+    void init() {
+        idempotentResponses = Caffeine.newBuilder()
+                .maximumSize(MAX_IDEMPOTENT_RESPONSES)
+                .expireAfterWrite(idempotencyTtl)
+                .build();
+    }
+    
+    public CartDto getCart(CartOwner owner) {
+        if (owner.isGuest()) {
+            return guestCartStore.read(owner.getGuestToken(), this::toDto);
+        }
+        return cartStore.read(userId(owner), this::toDto);
+    }
+    
+    // Adds to the quantity already in the cart
+    public CartDto addItem(CartOwner owner, CartItemRequest request) {
+        ProductDto product = product(request.getProductId());
+        return update(owner, cart -> {
+            int quantity = cart.quantity(product.getId()) + request.getQuantity();
+            checkStock(product, quantity);
+            cart.setQuantity(product.getId(), quantity);
+            return price(cart);
+        });
+    }
+    
+    public CartDto updateItem(CartOwner owner, Long productId, int quantity) {
+        if (quantity < 0) {
+            throw new BadRequestException("Quantity cannot be negative");
+        }
+        if (quantity == 0) {
+            return removeItem(owner, productId);
+        }
+        ProductDto product = product(productId);
+        checkStock(product, quantity);
+        return update(owner, cart -> {
+            cart.setQuantity(productId, quantity);
+            return price(cart);
+        });
+    }
+    
+    public CartDto removeItem(CartOwner owner, Long productId) {
+        return update(owner, cart -> {
+            if (cart.quantity(productId) == 0) {
+                throw new ResourceNotFoundException("Product " + productId + " is not in the cart");
+            }
+            cart.setQuantity(productId, 0);
+            return price(cart);
+        });
+    }
+    
+    public CartDto clearCart(CartOwner owner) {
+        return update(owner, cart -> {
+            cart.clear();
+            return price(cart);
+        });
+    }
+    
+    // Applies the operations in order as one change: either all of them land, priced once and
+    // written in one flush, or none do. A repeated idempotency key replays the first successful
+    // response instead of applying the operations again.
+    public CartDto applyOperations(CartOwner owner, String idempotencyKey, List<CartOperation> operations) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("An Idempotency-Key header of at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("At most " + MAX_OPERATIONS + " cart operations can be applied at once");
+        }
+        
+        String replayKey = owner.key() + "|" + idempotencyKey;
+        String fingerprint = fingerprint(operations);
+        CartDto replayed = replay(replayKey, fingerprint);
+        if (replayed != null) {
+            return replayed;
+        }
+        
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        return update(owner, cart -> {
+            // Checked again under the cart's lock, in case the same request is racing itself
+            CartDto concurrent = replay(replayKey, fingerprint);
+            if (concurrent != null) {
+                return concurrent;
+            }
+            
+            Map<Long, Integer> quantities = cart.quantities();
+            for (CartOperation operation : operations) {
+                apply(snapshot, quantities, operation);
+            }
+            cart.setQuantities(quantities);
+            CartDto cartDto = price(cart);
+            idempotentResponses.put(replayKey, new IdempotentResponse(fingerprint, cartDto));
+            return cartDto;
+        });
+    }
+    
+    // Moves a guest cart into the user's cart on sign-in. Quantities add up, capped at current
+    // stock; products that have left the catalog are dropped. A failed merge never fails the
+    // sign-in, it only loses the guest cart.
+    public void mergeGuestCart(String guestToken, Long userId) {
+        CartStore.CartState guestCart = guestCartStore.remove(guestToken);
+        if (guestCart == null) {
+            return;
+        }
+        Map<Long, Integer> guestLines;
+        synchronized (guestCart) {
+            guestLines = guestCart.quantities();
+        }
+        if (guestLines.isEmpty()) {
+            return;
+        }
+        
+        try {
+            CatalogSnapshot snapshot = productCatalog.snapshot();
+            cartStore.update(userId, cart -> {
+                for (Map.Entry<Long, Integer> line : guestLines.entrySet()) {
+                    ProductDto product = snapshot.product(line.getKey());
+                    if (product == null) {
+                        continue;
+                    }
+                    int available = product.getStock() != null ? product.getStock() : 0;
+                    int quantity = Math.min(cart.quantity(line.getKey()) + line.getValue(), available);
+                    if (quantity > 0) {
+                        cart.setQuantity(line.getKey(), quantity);
+                    }
+                }
+                return price(cart);
+            });
+            logger.debug("Merged {} guest cart lines into the cart of user {}", guestLines.size(), userId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to merge guest cart for user {}", userId, e);
+        }
+    }
+    
+    private static void apply(CatalogSnapshot snapshot, Map<Long, Integer> quantities, CartOperation operation) {
+        Long productId = operation.getProductId();
+        int current = quantities.getOrDefault(productId, 0);
+        int quantity = operation.getQuantity() != null ? operation.getQuantity() : 0;
+        switch (operation.getType()) {
+            case ADD:
+                if (quantity == 0) {
+                    throw new BadRequestException("ADD needs a positive quantity for product " + productId);
+                }
+                quantity += current;
+                break;
+            case UPDATE:
+                if (operation.getQuantity() == null) {
+                    throw new BadRequestException("UPDATE needs a quantity for product " + productId);
+                }
+                break;
+            default:
+                if (current == 0) {
+                    throw new ResourceNotFoundException("Product " + productId + " is not in the cart");
+                }
+                quantity = 0;
+                break;
+        }
+        
+        if (quantity == 0) {
+            quantities.remove(productId);
+            return;
+        }
+        ProductDto product = snapshot.product(productId);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        checkStock(product, quantity);
+        quantities.put(productId, quantity);
+    }
+    
+    private CartDto replay(String replayKey, String fingerprint) {
+        IdempotentResponse response = idempotentResponses.getIfPresent(replayKey);
+        if (response == null) {
+            return null;
+        }
+        if (!response.fingerprint.equals(fingerprint)) {
+            throw new BadRequestException("Idempotency key was already used for different cart operations");
+        }
+        return response.cart;
+    }
+    
+    private static String fingerprint(List<CartOperation> operations) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (CartOperation operation : operations) {
+            fingerprint.append(operation.getType()).append(':').append(operation.getProductId())
+                    .append(':').append(operation.getQuantity()).append(';');
+        }
+        return fingerprint.toString();
+    }
+    
+    private <T> T update(CartOwner owner, Function<CartStore.CartState, T> mutation) {
+        if (owner.isGuest()) {
+            return guestCartStore.update(owner.getGuestToken(), mutation);
+        }
+        return cartStore.update(userId(owner), mutation);
+    }
+    
+    private Long userId(CartOwner owner) {
+        if (owner.getUserId() != null) {
+            return owner.getUserId();
+        }
+        return userRepository.findByUsername(owner.getUsername())
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + owner.getUsername()));
+    }
+    
+    private ProductDto product(Long productId) {
+        ProductDto product = productCatalog.snapshot().product(productId);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return product;
+    }
+    
+    private static void checkStock(ProductDto product, int quantity) {
+        int available = product.getStock() != null ? product.getStock() : 0;
+        if (quantity > available) {
+            throw new InsufficientStockException(product.getId(), quantity, available);
+        }
+    }
+    
+    // Prices the cart and keeps the totals on it, so the next flush writes them too
+    private CartDto price(CartStore.CartState cart) {
+        CartDto cartDto = toDto(cart);
+        cart.setTotals(cartDto.getSubtotal(), cartDto.getDiscount(), cartDto.getTax(), cartDto.getShipping(), cartDto.getTotal());
+        return cartDto;
+    }
+    
+    private CartDto toDto(CartStore.CartState cart) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        Map<Long, Integer> quantities = cart.quantities();
+        List<CartItemDto> items = new ArrayList<>(quantities.size());
+        long[] unitPrices = new long[quantities.size()];
+        int[] pricedQuantities = new int[quantities.size()];
+        int lines = 0;
+        int totalItems = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            CartItemDto item = new CartItemDto(line.getKey(), line.getValue());
+            ProductDto product = snapshot.product(line.getKey());
+            if (product != null) {
+                item.setName(product.getName());
+                item.setImage(product.getImage());
+                item.setPrice(product.getPrice());
+                item.setLineTotal(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
+                item.setAvailable(true);
+                unitPrices[lines] = PricingEngine.toCents(product.getPrice());
+                pricedQuantities[lines++] = line.getValue();
+                totalItems += line.getValue();
+            }
+            items.add(item);
+        }
+        PriceTotals totals = pricingEngine.price(unitPrices, pricedQuantities, lines, PricingEngine.toCents(cart.getDiscount()));
+        
+        CartDto cartDto = new CartDto();
+        cartDto.setItems(items);
+        cartDto.setTotalItems(totalItems);
+        cartDto.setSubtotal(totals.getSubtotal());
+        cartDto.setDiscount(totals.getDiscount());
+        cartDto.setDiscountCode(cart.getDiscountCode());
+        cartDto.setTax(totals.getTax());
+        cartDto.setShipping(totals.getShipping());
+        cartDto.setTotal(totals.getTotal());
+        cartDto.setUpdatedAt(cart.getUpdatedAt());
+        return cartDto;
+    }
+    
+    private static final class IdempotentResponse {
+        
+        private final String fingerprint;
+        private final CartDto cart;
+        
+        IdempotentResponse(String fingerprint, CartDto cart) {
+            this.fingerprint = fingerprint;
+            this.cart = cart;
+        }
+    }
+    
+    // Whose cart a request works on: a signed-in user, or a guest named by their cart token
+    public static final class CartOwner {
+        
+        private final Long userId;
+        private final String username;
+        private final String guestToken;
+        
+        private CartOwner(Long userId, String username, String guestToken) {
+            this.userId = userId;
+            this.username = username;
+            this.guestToken = guestToken;
+        }
+        
+        // userId may be null, in which case it is looked up by username
+        public static CartOwner user(Long userId, String username) {
+            return new CartOwner(userId, username, null);
+        }
+        
+        public static CartOwner guest(String guestToken) {
+            return new CartOwner(null, null, guestToken);
+        }
+        
+        public boolean isGuest() {
+            return username == null;
+        }
+        
+        String key() {
+            return isGuest() ? "guest:" + guestToken : "user:" + username;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public String getGuestToken() {
+            return guestToken;
+        }
+    }
+}
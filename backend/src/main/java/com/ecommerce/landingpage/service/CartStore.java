@@ -0,0 +1,421 @@
+package com.ecommerce.landingpage.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Hot cart state, one entry per user. Reads and mutations work on memory under the cart's lock
+// and only mark it dirty; a scheduled flush writes every dirty cart to carts/cart_items in one
+// JDBC batch per cycle, so a burst of edits to a cart costs a single write, and the last
+// flush runs on shutdown. If the batch fails the carts are written one at a time, so one bad
+// cart can't hold back the rest; a cart that still fails MAX_WRITE_ATTEMPTS flushes in a row is
+// dropped from memory with its unsaved changes. A cart is loaded from the database on first use and dropped again
+// once it is clean and has been idle for app.carts.idle-timeout.
+@Component
+public class CartStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+    
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    
+    private static final String SELECT_CART_SQL = "SELECT id, discount, discount_code, updated_at FROM carts WHERE user_id = ?";
+    private static final String SELECT_ITEMS_SQL = "SELECT product_id, quantity, added_at FROM cart_items WHERE cart_id = ? ORDER BY added_at, id";
+    private static final String INSERT_CART_SQL = "INSERT INTO carts (user_id, subtotal, tax, shipping, total, discount, applied_discount, created_at, updated_at) " +
+            "VALUES (?, 0, 0, 0, 0, 0, 0, ?, ?)";
+    private static final String UPDATE_CART_SQL = "UPDATE carts SET subtotal = ?, tax = ?, shipping = ?, total = ?, discount = ?, " +
+            "applied_discount = ?, discount_code = ?, updated_at = ? WHERE id = ?";
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM cart_items WHERE cart_id = ?";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO cart_items (cart_id, product_id, quantity, added_at) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.carts.idle-timeout:30m}")
+    private Duration idleTimeout;
+    
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // User id -> consecutive failed writes of that cart on its own; only touched by flush()
+    private final Map<Long, Integer> failedWrites = new HashMap<>();
+    
+    public <T> T read(Long userId, Function<CartState, T> reader) {
+        while (true) {
+            CartState cart = carts.computeIfAbsent(userId, this::load);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    cart.lastAccess = System.currentTimeMillis();
+                    return reader.apply(cart);
+                }
+            }
+        }
+    }
+    
+    // Applies the mutation in memory; the cart reaches the database on the next flush. A mutation
+    // that throws must do so before changing the cart.
+    public <T> T update(Long userId, Function<CartState, T> mutation) {
+        while (true) {
+            CartState cart = carts.computeIfAbsent(userId, this::load);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    cart.lastAccess = System.currentTimeMillis();
+                    T result = mutate(cart, mutation);
+                    cart.version++;
+                    dirty.add(userId);
+                    return result;
+                }
+            }
+        }
+    }
+    
+    // Stamps updatedAt before the mutation runs so the result it builds sees it. The caller
+    // holds the cart's lock.
+    static <T> T mutate(CartState cart, Function<CartState, T> mutation) {
+        LocalDateTime previousUpdate = cart.updatedAt;
+        cart.updatedAt = LocalDateTime.now();
+        try {
+            return mutation.apply(cart);
+        } catch (RuntimeException e) {
+            cart.updatedAt = previousUpdate;
+            throw e;
+        }
+    }
+    
+    // Forgets the cart without writing it, e.g. because its user is being deleted
+    public void evict(Long userId) {
+        CartState cart = carts.remove(userId);
+        if (cart != null) {
+            synchronized (cart) {
+                cart.evicted = true;
+            }
+        }
+        dirty.remove(userId);
+    }
+    
+    // True while the user's cart is held in memory, i.e. it has been used within idle-timeout
+    public boolean isLoaded(Long userId) {
+        return carts.containsKey(userId);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.carts.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Long> userIds = new ArrayList<>(dirty);
+        dirty.removeAll(userIds);
+        
+        List<Snapshot> snapshots = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            CartState cart = carts.get(userId);
+            if (cart == null) {
+                continue;
+            }
+            synchronized (cart) {
+                if (!cart.evicted && cart.version != cart.flushedVersion) {
+                    snapshots.add(new Snapshot(userId, cart));
+                }
+            }
+        }
+        
+        if (!snapshots.isEmpty()) {
+            try {
+                markWritten(snapshots, write(snapshots));
+            } catch (RuntimeException e) {
+                // One bad cart must not hold back everyone else's, so retry them one at a time
+                logger.warn("Failed to write {} carts together, writing them one by one", snapshots.size(), e);
+                for (Snapshot snapshot : snapshots) {
+                    writeAlone(snapshot);
+                }
+            }
+        }
+        evictIdle();
+    }
+    
+    private void writeAlone(Snapshot snapshot) {
+        // The failed batch may have pointed it at a row it inserted and then rolled back
+        snapshot.cartId = snapshot.loadedCartId;
+        try {
+            markWritten(List.of(snapshot), write(List.of(snapshot)));
+            failedWrites.remove(snapshot.userId);
+        } catch (RuntimeException e) {
+            int failures = failedWrites.merge(snapshot.userId, 1, Integer::sum);
+            if (failures < MAX_WRITE_ATTEMPTS) {
+                logger.warn("Failed to write cart of user {} ({} of {} attempts), will retry", snapshot.userId, failures, MAX_WRITE_ATTEMPTS, e);
+                dirty.add(snapshot.userId);
+            } else {
+                // Dropped from memory, so the next request reloads the last cart that was written
+                logger.error("Dropping unsaved changes to the cart of user {} after {} failed writes", snapshot.userId, failures, e);
+                failedWrites.remove(snapshot.userId);
+                evict(snapshot.userId);
+            }
+        }
+    }
+    
+    private void markWritten(List<Snapshot> snapshots, Map<Long, Long> createdIds) {
+        for (Snapshot snapshot : snapshots) {
+            CartState cart = carts.get(snapshot.userId);
+            if (cart != null) {
+                synchronized (cart) {
+                    cart.flushedVersion = Math.max(cart.flushedVersion, snapshot.version);
+                    Long createdId = createdIds.get(snapshot.userId);
+                    if (createdId != null) {
+                        cart.cartId = createdId;
+                    }
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+    
+    private CartState load(Long userId) {
+        CartState cart = new CartState();
+        jdbcTemplate.query(SELECT_CART_SQL, rs -> {
+            cart.cartId = rs.getLong("id");
+            cart.discount = rs.getBigDecimal("discount") != null ? rs.getBigDecimal("discount") : BigDecimal.ZERO;
+            cart.discountCode = rs.getString("discount_code");
+            cart.updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+        }, userId);
+        if (cart.cartId != null) {
+            jdbcTemplate.query(SELECT_ITEMS_SQL, rs -> {
+                cart.lines.put(rs.getLong("product_id"), new Line(rs.getInt("quantity"), rs.getTimestamp("added_at").toLocalDateTime()));
+            }, cart.cartId);
+        }
+        cart.lastAccess = System.currentTimeMillis();
+        return cart;
+    }
+    
+    // All dirty carts in one transaction: existing carts get their totals updated, carts without
+    // a row (new, or swept by AbandonedCartSweeper since they were loaded) get one inserted, then
+    // every cart's items are replaced, each step as a single batch
+    private Map<Long, Long> write(List<Snapshot> snapshots) {
+        return transactionTemplate.execute(status -> {
+            List<Snapshot> existing = new ArrayList<>(snapshots.size());
+            for (Snapshot snapshot : snapshots) {
+                if (snapshot.cartId != null) {
+                    existing.add(snapshot);
+                }
+            }
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_CART_SQL, cartRows(existing));
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    existing.get(i).cartId = null;
+                }
+            }
+            
+            Map<Long, Long> createdIds = new HashMap<>();
+            List<Snapshot> created = new ArrayList<>();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (Snapshot snapshot : snapshots) {
+                if (snapshot.cartId == null) {
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(INSERT_CART_SQL, Statement.RETURN_GENERATED_KEYS);
+                        statement.setLong(1, snapshot.userId);
+                        statement.setTimestamp(2, now);
+                        statement.setTimestamp(3, now);
+                        return statement;
+                    }, keyHolder);
+                    snapshot.cartId = keyHolder.getKey().longValue();
+                    createdIds.put(snapshot.userId, snapshot.cartId);
+                    created.add(snapshot);
+                }
+            }
+            if (!created.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_CART_SQL, cartRows(created));
+            }
+            
+            List<Object[]> cartIds = new ArrayList<>(snapshots.size());
+            List<Object[]> items = new ArrayList<>();
+            for (Snapshot snapshot : snapshots) {
+                cartIds.add(new Object[] {snapshot.cartId});
+                for (Map.Entry<Long, Line> line : snapshot.lines.entrySet()) {
+                    items.add(new Object[] {snapshot.cartId, line.getKey(), line.getValue().quantity, Timestamp.valueOf(line.getValue().addedAt)});
+                }
+            }
+            jdbcTemplate.batchUpdate(DELETE_ITEMS_SQL, cartIds);
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items);
+            logger.debug("Wrote {} carts with {} items", snapshots.size(), items.size());
+            return createdIds;
+        });
+    }
+    
+    private static List<Object[]> cartRows(List<Snapshot> snapshots) {
+        List<Object[]> rows = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            rows.add(new Object[] {snapshot.subtotal, snapshot.tax, snapshot.shipping, snapshot.total, snapshot.discount,
+                    snapshot.appliedDiscount, snapshot.discountCode, Timestamp.valueOf(snapshot.updatedAt), snapshot.cartId});
+        }
+        return rows;
+    }
+    
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        for (Map.Entry<Long, CartState> entry : carts.entrySet()) {
+            CartState cart = entry.getValue();
+            synchronized (cart) {
+                if (cart.lastAccess < cutoff && cart.version == cart.flushedVersion && !dirty.contains(entry.getKey())) {
+                    cart.evicted = true;
+                    carts.remove(entry.getKey(), cart);
+                }
+            }
+        }
+    }
+    
+    // One cart's in-memory state. Only touched through CartStore or GuestCartStore, which hold its lock.
+    public static final class CartState {
+        
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private Long cartId;
+        private BigDecimal discount = BigDecimal.ZERO;
+        private String discountCode;
+        private BigDecimal subtotal = BigDecimal.ZERO;
+        private BigDecimal tax = BigDecimal.ZERO;
+        private BigDecimal shipping = BigDecimal.ZERO;
+        private BigDecimal total = BigDecimal.ZERO;
+        private BigDecimal appliedDiscount = BigDecimal.ZERO;
+        private LocalDateTime updatedAt;
+        private long version;
+        private long flushedVersion;
+        private long lastAccess;
+        private boolean evicted;
+        
+        // Product id -> quantity, in the order the products were first added
+        public Map<Long, Integer> quantities() {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            for (Map.Entry<Long, Line> line : lines.entrySet()) {
+                quantities.put(line.getKey(), line.getValue().quantity);
+            }
+            return quantities;
+        }
+        
+        public int quantity(Long productId) {
+            Line line = lines.get(productId);
+            return line != null ? line.quantity : 0;
+        }
+        
+        // A quantity of zero removes the line
+        public void setQuantity(Long productId, int quantity) {
+            if (quantity <= 0) {
+                lines.remove(productId);
+                return;
+            }
+            Line line = lines.get(productId);
+            if (line != null) {
+                line.quantity = quantity;
+            } else {
+                lines.put(productId, new Line(quantity, LocalDateTime.now()));
+            }
+        }
+        
+        // Replaces every line at once; lines that stay keep their position and addedAt
+        public void setQuantities(Map<Long, Integer> quantities) {
+            lines.keySet().retainAll(quantities.keySet());
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                setQuantity(quantity.getKey(), quantity.getValue());
+            }
+        }
+        
+        public void clear() {
+            lines.clear();
+        }
+        
+        public boolean isEmpty() {
+            return lines.isEmpty();
+        }
+        
+        public BigDecimal getDiscount() {
+            return discount;
+        }
+        
+        public String getDiscountCode() {
+            return discountCode;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        // Totals as last priced, written with the cart
+        public void setTotals(BigDecimal subtotal, BigDecimal appliedDiscount, BigDecimal tax, BigDecimal shipping, BigDecimal total) {
+            this.subtotal = subtotal;
+            this.appliedDiscount = appliedDiscount;
+            this.tax = tax;
+            this.shipping = shipping;
+            this.total = total;
+        }
+    }
+    
+    private static final class Line {
+        
+        private int quantity;
+        private final LocalDateTime addedAt;
+        
+        Line(int quantity, LocalDateTime addedAt) {
+            this.quantity = quantity;
+            this.addedAt = addedAt;
+        }
+    }
+    
+    // What a flush writes for one cart, copied under the cart's lock
+    private static final class Snapshot {
+        
+        private final Long userId;
+        private final Long loadedCartId;
+        private Long cartId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private final BigDecimal subtotal;
+        private final BigDecimal tax;
+        private final BigDecimal shipping;
+        private final BigDecimal total;
+        private final BigDecimal discount;
+        private final BigDecimal appliedDiscount;
+        private final String discountCode;
+        private final LocalDateTime updatedAt;
+        private final long version;
+        
+        Snapshot(Long userId, CartState cart) {
+            this.userId = userId;
+            this.loadedCartId = cart.cartId;
+            this.cartId = cart.cartId;
+            for (Map.Entry<Long, Line> line : cart.lines.entrySet()) {
+                lines.put(line.getKey(), new Line(line.getValue().quantity, line.getValue().addedAt));
+            }
+            this.subtotal = cart.subtotal;
+            this.tax = cart.tax;
+            this.shipping = cart.shipping;
+            this.total = cart.total;
+            this.discount = cart.discount;
+            this.appliedDiscount = cart.appliedDiscount;
+            this.discountCode = cart.discountCode;
+            this.updatedAt = cart.updatedAt;
+            this.version = cart.version;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.landingpage.service;
+
+// Published when ProductCatalog rebuilds its snapshot from the database, so derived
+// indexes can rebuild from the same state instead of applying per-product changes
+public class CatalogReloadedEvent {
+    
+    private final CatalogSnapshot snapshot;
+    
+    public CatalogReloadedEvent(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable view of all active products. Writers never modify a published snapshot,
+// they build a new one with withChanges() and swap it in.
+public final class CatalogSnapshot {
+    
+    private static final Comparator<ProductDto> BY_ID = Comparator.comparing(ProductDto::getId);
+    private static final Sort ID_ORDER = Sort.by("id");
+    
+    private final long version;
+    private final Instant publishedAt;
+    private final List<ProductDto> products;
+    private final Map<Long, ProductDto> productsById;
+    private final Map<String, List<ProductDto>> productsByCategory;
+    private final List<String> categories;
+    private final List<ProductDto> inStockProducts;
+    private final List<ProductDto> discountedProducts;
+    
+    // Sorted copies are derived lazily; safe to cache because the snapshot never changes
+    private final Map<String, List<ProductDto>> sortedViews = new ConcurrentHashMap<>();
+    
+    CatalogSnapshot(long version, List<ProductDto> productsInIdOrder) {
+        this.version = version;
+        this.publishedAt = Instant.now();
+        this.products = Collections.unmodifiableList(productsInIdOrder);
+        
+        Map<Long, ProductDto> byId = new HashMap<>(productsInIdOrder.size() * 2);
+        Map<String, List<ProductDto>> byCategory = new TreeMap<>();
+        List<ProductDto> inStock = new ArrayList<>();
+        List<ProductDto> discounted = new ArrayList<>();
+        
+        for (ProductDto product : productsInIdOrder) {
+            byId.put(product.getId(), product);
+            byCategory.computeIfAbsent(product.getCategory(), category -> new ArrayList<>()).add(product);
+            if (product.getStock() != null && product.getStock() > 0) {
+                inStock.add(product);
+            }
+            if (product.isDiscounted()) {
+                discounted.add(product);
+            }
+        }
+        
+        byCategory.replaceAll((category, items) -> Collections.unmodifiableList(items));
+        this.productsById = Collections.unmodifiableMap(byId);
+        this.productsByCategory = Collections.unmodifiableMap(byCategory);
+        this.categories = List.copyOf(byCategory.keySet());
+        this.inStockProducts = Collections.unmodifiableList(inStock);
+        this.discountedProducts = Collections.unmodifiableList(discounted);
+    }
+    
+    // Copy-on-write: active products are inserted or replaced, inactive ones are dropped
+    CatalogSnapshot withChanges(long newVersion, Collection<ProductDto> changes) {
+        List<ProductDto> next = new ArrayList<>(products);
+        for (ProductDto change : changes) {
+            int position = Collections.binarySearch(next, change, BY_ID);
+            if (change.isActive()) {
+                if (position >= 0) {
+                    next.set(position, change);
+                } else {
+                    next.add(-position - 1, change);
+                }
+            } else if (position >= 0) {
+                next.remove(position);
+            }
+        }
+        return new CatalogSnapshot(newVersion, next);
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public List<ProductDto> products() {
+        return products;
+    }
+    
+    public ProductDto product(Long id) {
+        return productsById.get(id);
+    }
+    
+    public List<ProductDto> productsInCategory(String category) {
+        return productsByCategory.getOrDefault(category, Collections.emptyList());
+    }
+    
+    public List<String> categories() {
+        return categories;
+    }
+    
+    public List<ProductDto> inStockProducts() {
+        return inStockProducts;
+    }
+    
+    public List<ProductDto> discountedProducts() {
+        return discountedProducts;
+    }
+    
+    public int size() {
+        return products.size();
+    }
+    
+    public List<ProductDto> sorted(String viewName, List<ProductDto> view, Sort sort) {
+        // Every view is already kept in id order
+        if (sort.isUnsorted() || sort.equals(ID_ORDER)) {
+            return view;
+        }
+        return sortedViews.computeIfAbsent(viewName + '|' + sort, key -> {
+            List<ProductDto> copy = new ArrayList<>(view);
+            copy.sort(ProductSort.comparator(sort));
+            return Collections.unmodifiableList(copy);
+        });
+    }
+}
@@ -0,0 +1,277 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.FlashSaleDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory admission and stock for running flash sales; a purchase attempt never touches the
+// database. Each sale's units are spread over padded counter shards, so concurrent buyers
+// decrement different cache lines instead of queueing on one row lock. In front of that, a
+// token bucket (kept as a single GCRA timestamp) turns away excess attempts with one read.
+@Component
+public class FlashSaleEngine {
+    
+    // Longs between two shards' counters: 128 bytes, so no two shards share a cache line
+    private static final int SHARD_STRIDE = 16;
+    
+    public enum Outcome {
+        ACCEPTED, NOT_FOUND, NOT_ACTIVE, THROTTLED, LIMIT_EXCEEDED, SOLD_OUT
+    }
+    
+    @Value("${app.flash-sales.shards:0}")
+    private int configuredShards;
+    
+    @Value("${app.flash-sales.admission-rate:20000}")
+    private long admissionRate;
+    
+    @Value("${app.flash-sales.admission-burst:2000}")
+    private long admissionBurst;
+    
+    private final Map<Long, Sale> sales = new ConcurrentHashMap<>();
+    
+    public Sale register(FlashSaleDto flashSale, int remaining) {
+        Sale sale = new Sale(flashSale, remaining, shardCount(), admissionRate, admissionBurst);
+        sales.put(flashSale.getId(), sale);
+        return sale;
+    }
+    
+    public Sale get(Long saleId) {
+        return sales.get(saleId);
+    }
+    
+    public Collection<Sale> sales() {
+        return sales.values();
+    }
+    
+    public void remove(Long saleId) {
+        sales.remove(saleId);
+    }
+    
+    // The outcome comes with the sale it was decided on, so the caller never looks the sale up
+    // again after settlement may have removed it. Purchase limits are per buyer id.
+    public Attempt tryPurchase(Long saleId, Long buyerId, int quantity) {
+        Sale sale = sales.get(saleId);
+        if (sale == null) {
+            return new Attempt(Outcome.NOT_FOUND, null);
+        }
+        if (sale.soldOut) {
+            return new Attempt(Outcome.SOLD_OUT, sale);
+        }
+        long now = System.currentTimeMillis();
+        if (now < sale.startMillis || now >= sale.endMillis) {
+            return new Attempt(Outcome.NOT_ACTIVE, sale);
+        }
+        if (!sale.admit()) {
+            return new Attempt(Outcome.THROTTLED, sale);
+        }
+        
+        AtomicInteger bought = sale.customers.computeIfAbsent(buyerId, key -> new AtomicInteger());
+        if (!sale.addWithinLimit(bought, quantity)) {
+            return new Attempt(Outcome.LIMIT_EXCEEDED, sale);
+        }
+        if (!sale.take(quantity)) {
+            bought.addAndGet(-quantity);
+            return new Attempt(Outcome.SOLD_OUT, sale);
+        }
+        sale.sold.add(quantity);
+        return new Attempt(Outcome.ACCEPTED, sale);
+    }
+    
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private int shardCount() {
+        int wanted = configuredShards > 0 ? configuredShards : Runtime.getRuntime().availableProcessors() * 2;
+        return Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+    }
+    
+    public static final class Attempt {
+        
+        private final Outcome outcome;
+        private final Sale sale;
+        
+        Attempt(Outcome outcome, Sale sale) {
+            this.outcome = outcome;
+            this.sale = sale;
+        }
+        
+        public Outcome getOutcome() {
+            return outcome;
+        }
+        
+        // Null only for NOT_FOUND
+        public Sale getSale() {
+            return sale;
+        }
+    }
+    
+    public static final class Sale {
+        
+        private final FlashSaleDto flashSale;
+        private final long startMillis;
+        private volatile long endMillis;
+        private volatile boolean soldOut;
+        
+        private final AtomicLongArray shards;
+        private final int shardMask;
+        
+        // Token bucket as a theoretical arrival time: each admission pushes it one emission
+        // interval further, and an attempt is refused while it is more than a burst ahead of now
+        private final AtomicLong theoreticalArrival;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        
+        // Buyer user id -> units bought in this sale
+        private final Map<Long, AtomicInteger> customers = new ConcurrentHashMap<>();
+        private final int perCustomerLimit;
+        private final LongAdder sold = new LongAdder();
+        
+        Sale(FlashSaleDto flashSale, int remaining, int shardCount, long admissionRate, long admissionBurst) {
+            this.flashSale = flashSale;
+            this.startMillis = toEpochMilli(flashSale.getStartTime());
+            this.endMillis = toEpochMilli(flashSale.getEndTime());
+            this.perCustomerLimit = flashSale.getPerCustomerLimit() != null ? flashSale.getPerCustomerLimit() : Integer.MAX_VALUE;
+            
+            this.shards = new AtomicLongArray(shardCount * SHARD_STRIDE);
+            this.shardMask = shardCount - 1;
+            for (int i = 0; i < shardCount; i++) {
+                shards.set(i * SHARD_STRIDE, remaining / shardCount + (i < remaining % shardCount ? 1 : 0));
+            }
+            this.soldOut = remaining <= 0;
+            
+            this.emissionIntervalNanos = Math.max(1, 1_000_000_000L / Math.max(1, admissionRate));
+            this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, admissionBurst - 1);
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+        
+        public FlashSaleDto getFlashSale() {
+            return flashSale;
+        }
+        
+        public long getEndMillis() {
+            return endMillis;
+        }
+        
+        public long getSold() {
+            return sold.sum();
+        }
+        
+        public int remaining() {
+            long total = 0;
+            for (int i = 0; i <= shardMask; i++) {
+                total += shards.get(i * SHARD_STRIDE);
+            }
+            return (int) total;
+        }
+        
+        public String status() {
+            long now = System.currentTimeMillis();
+            if (now >= endMillis) {
+                return FlashSaleDto.ENDED;
+            }
+            if (now < startMillis) {
+                return FlashSaleDto.UPCOMING;
+            }
+            return soldOut ? FlashSaleDto.SOLD_OUT : FlashSaleDto.ACTIVE;
+        }
+        
+        // Stops accepting purchases now; already granted units stay sold
+        public void close() {
+            endMillis = Math.min(endMillis, System.currentTimeMillis());
+        }
+        
+        // A buyer handing back a partial gather can make the shards look empty for a moment
+        void recheckSoldOut() {
+            if (soldOut && remaining() > 0) {
+                soldOut = false;
+            }
+        }
+        
+        void restoreCustomer(Long buyerId, int quantity) {
+            customers.computeIfAbsent(buyerId, key -> new AtomicInteger()).addAndGet(quantity);
+        }
+        
+        private boolean admit() {
+            long now = System.nanoTime();
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                if (arrival - now > burstToleranceNanos) {
+                    return false;
+                }
+                long next = Math.max(arrival, now) + emissionIntervalNanos;
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+        
+        private boolean addWithinLimit(AtomicInteger bought, int quantity) {
+            while (true) {
+                int current = bought.get();
+                if (current + quantity > perCustomerLimit) {
+                    return false;
+                }
+                if (bought.compareAndSet(current, current + quantity)) {
+                    return true;
+                }
+            }
+        }
+        
+        // Tries a random home shard first, then the others. A quantity that no single shard can
+        // cover is gathered across shards and handed back if the total falls short.
+        private boolean take(int quantity) {
+            int home = ThreadLocalRandom.current().nextInt() & shardMask;
+            for (int i = 0; i <= shardMask; i++) {
+                int slot = ((home + i) & shardMask) * SHARD_STRIDE;
+                while (true) {
+                    long available = shards.get(slot);
+                    if (available < quantity) {
+                        break;
+                    }
+                    if (shards.compareAndSet(slot, available, available - quantity)) {
+                        return true;
+                    }
+                }
+            }
+            
+            long[] taken = new long[shardMask + 1];
+            long needed = quantity;
+            for (int i = 0; i <= shardMask && needed > 0; i++) {
+                int slot = ((home + i) & shardMask) * SHARD_STRIDE;
+                while (true) {
+                    long available = shards.get(slot);
+                    long part = Math.min(available, needed);
+                    if (part == 0 || shards.compareAndSet(slot, available, available - part)) {
+                        taken[(home + i) & shardMask] = part;
+                        needed -= part;
+                        break;
+                    }
+                }
+            }
+            if (needed == 0) {
+                return true;
+            }
+            for (int i = 0; i <= shardMask; i++) {
+                if (taken[i] > 0) {
+                    shards.addAndGet(i * SHARD_STRIDE, taken[i]);
+                }
+            }
+            if (quantity - needed == 0 && remaining() == 0) {
+                soldOut = true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.FlashSaleDto;
+import com.ecommerce.landingpage.dto.FlashSalePurchaseResult;
+import com.ecommerce.landingpage.dto.StockAdjustment;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.exception.InsufficientStockException;
+import com.ecommerce.landingpage.exception.ResourceNotFoundException;
+import com.ecommerce.landingpage.exception.TooManyRequestsException;
+import com.ecommerce.landingpage.model.FlashSale;
+import com.ecommerce.landingpage.model.Product;
+import com.ecommerce.landingpage.model.User;
+import com.ecommerce.landingpage.repository.FlashSaleRepository;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import com.ecommerce.landingpage.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+// Flash sales on top of FlashSaleEngine. Purchases are granted in memory and queued; a
+// scheduled flush writes them to flash_sale_purchases and bumps each sale's sold_count in one
+// batch per cycle. Once a sale has ended, its unsold units are released back to the product.
+@Service
+@Transactional
+public class FlashSaleService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleService.class);
+    
+    // How long after its end a sale waits before settling, so purchases admitted just before
+    // the end are already queued when the flush drains
+    private static final long SETTLE_GRACE_MILLIS = 1000;
+    
+    private static final String INSERT_PURCHASE_SQL = "INSERT INTO flash_sale_purchases " +
+            "(flash_sale_id, user_id, quantity, unit_price, purchased_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String ADD_SOLD_SQL = "UPDATE flash_sales SET sold_count = sold_count + ?, updated_at = ? WHERE id = ?";
+    
+    @Autowired
+    private FlashSaleRepository flashSaleRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private FlashSaleEngine engine;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final Queue<PendingPurchase> pending = new ConcurrentLinkedQueue<>();
+    
+    // Purchases whose write failed, retried by the next flush (only touched by flush())
+    private final List<PendingPurchase> unwritten = new ArrayList<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        for (FlashSale flashSale : flashSaleRepository.findUnsettledWithProduct()) {
+            FlashSaleEngine.Sale sale = engine.register(new FlashSaleDto(flashSale), flashSale.getAllocatedStock() - flashSale.getSoldCount());
+            jdbcTemplate.query("SELECT user_id, SUM(quantity) FROM flash_sale_purchases WHERE flash_sale_id = ? GROUP BY user_id",
+                    rs -> {
+                        sale.restoreCustomer(rs.getLong(1), rs.getInt(2));
+                    },
+                    flashSale.getId());
+        }
+        logger.debug("Loaded {} unsettled flash sales", engine.sales().size());
+    }
+    
+    public FlashSaleDto createFlashSale(FlashSaleDto flashSaleDto) {
+        if (!flashSaleDto.getEndTime().isAfter(flashSaleDto.getStartTime())) {
+            throw new BadRequestException("End time must be after start time");
+        }
+        if (!flashSaleDto.getEndTime().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("End time must be in the future");
+        }
+        Product product = productRepository.findById(flashSaleDto.getProductId())
+                .filter(Product::isActive)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + flashSaleDto.getProductId()));
+        if (flashSaleDto.getSalePrice().compareTo(product.getPrice()) >= 0) {
+            throw new BadRequestException("Sale price must be below the product price");
+        }
+        
+        // The allocation leaves the product's regular stock for the duration of the sale
+        inventoryService.reserve(List.of(new StockAdjustment(product.getId(), flashSaleDto.getAllocatedStock())));
+        
+        FlashSale flashSale = new FlashSale();
+        flashSale.setProduct(product);
+        flashSale.setTitle(flashSaleDto.getTitle());
+        flashSale.setDescription(flashSaleDto.getDescription());
+        flashSale.setSalePrice(flashSaleDto.getSalePrice());
+        flashSale.setStartTime(flashSaleDto.getStartTime());
+        flashSale.setEndTime(flashSaleDto.getEndTime());
+        flashSale.setAllocatedStock(flashSaleDto.getAllocatedStock());
+        flashSale.setPerCustomerLimit(flashSaleDto.getPerCustomerLimit() != null ? flashSaleDto.getPerCustomerLimit() : 1);
+        
+        FlashSaleDto savedDto = new FlashSaleDto(flashSaleRepository.save(flashSale));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                engine.register(savedDto, savedDto.getAllocatedStock());
+            }
+        });
+        savedDto.setStatus(FlashSaleDto.UPCOMING);
+        return savedDto;
+    }
+    
+    // Ends the sale now; settlement happens on the next flush cycle
+    public FlashSaleDto endFlashSale(Long id) {
+        FlashSale flashSale = flashSaleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Flash sale not found with id: " + id));
+        if (flashSale.getEndTime().isAfter(LocalDateTime.now())) {
+            flashSale.setEndTime(LocalDateTime.now());
+        }
+        FlashSaleEngine.Sale sale = engine.get(id);
+        if (sale != null) {
+            sale.close();
+        }
+        FlashSaleDto flashSaleDto = new FlashSaleDto(flashSaleRepository.save(flashSale));
+        flashSaleDto.setStatus(FlashSaleDto.ENDED);
+        return flashSaleDto;
+    }
+    
+    // Served from memory: upcoming and running sales only
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<FlashSaleDto> getFlashSales() {
+        return engine.sales().stream()
+                .map(FlashSaleService::view)
+                .filter(flashSale -> !FlashSaleDto.ENDED.equals(flashSale.getStatus()))
+                .sorted(Comparator.comparing(FlashSaleDto::getStartTime).thenComparing(FlashSaleDto::getId))
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public FlashSaleDto getFlashSale(Long id) {
+        FlashSaleEngine.Sale sale = engine.get(id);
+        if (sale != null) {
+            return view(sale);
+        }
+        FlashSale flashSale = flashSaleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Flash sale not found with id: " + id));
+        FlashSaleDto flashSaleDto = new FlashSaleDto(flashSale);
+        flashSaleDto.setStatus(FlashSaleDto.ENDED);
+        return flashSaleDto;
+    }
+    
+    // The hot path: no transaction, and no connection when the caller already knows the user's
+    // id (see AuthenticatedUser). The id is fixed here so the flush can't lose the purchase row.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FlashSalePurchaseResult purchase(Long id, Long userId, String username, int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be positive");
+        }
+        Long buyerId = userId != null ? userId : userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        
+        FlashSaleEngine.Attempt attempt = engine.tryPurchase(id, buyerId, quantity);
+        FlashSaleEngine.Sale sale = attempt.getSale();
+        switch (attempt.getOutcome()) {
+            case NOT_FOUND:
+                // Settled sales leave the engine too
+                throw new ResourceNotFoundException("Flash sale not found or already ended: " + id);
+            case NOT_ACTIVE:
+                throw new BadRequestException("Flash sale is not running");
+            case THROTTLED:
+                throw new TooManyRequestsException("Too many purchase attempts, please try again");
+            case LIMIT_EXCEEDED:
+                throw new BadRequestException("Purchase limit is " + sale.getFlashSale().getPerCustomerLimit() + " per customer");
+            case SOLD_OUT:
+                throw new InsufficientStockException(sale.getFlashSale().getProductId(), quantity, sale.remaining());
+            default:
+                break;
+        }
+        
+        FlashSaleDto flashSale = sale.getFlashSale();
+        pending.add(new PendingPurchase(id, buyerId, quantity, flashSale.getSalePrice(), LocalDateTime.now()));
+        return new FlashSalePurchaseResult(id, flashSale.getProductId(), quantity, flashSale.getSalePrice(), sale.remaining());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.flash-sales.flush-interval-ms:500}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized void flush() {
+        long cycleStart = System.currentTimeMillis();
+        PendingPurchase purchase;
+        while ((purchase = pending.poll()) != null) {
+            unwritten.add(purchase);
+        }
+        
+        if (!unwritten.isEmpty()) {
+            try {
+                write(unwritten);
+                unwritten.clear();
+            } catch (RuntimeException e) {
+                logger.error("Failed to record {} flash sale purchases, will retry", unwritten.size(), e);
+                return;
+            }
+        }
+        
+        for (FlashSaleEngine.Sale sale : engine.sales()) {
+            sale.recheckSoldOut();
+            if (sale.getEndMillis() + SETTLE_GRACE_MILLIS <= cycleStart) {
+                try {
+                    settle(sale.getFlashSale().getId());
+                    engine.remove(sale.getFlashSale().getId());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to settle flash sale {}", sale.getFlashSale().getId(), e);
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+    
+    private void write(List<PendingPurchase> purchases) {
+        Map<Long, Integer> soldBySale = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(purchases.size());
+        for (PendingPurchase purchase : purchases) {
+            rows.add(new Object[] {purchase.saleId, purchase.userId, purchase.quantity, purchase.unitPrice,
+                    Timestamp.valueOf(purchase.purchasedAt)});
+            soldBySale.merge(purchase.saleId, purchase.quantity, Integer::sum);
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> sold = new ArrayList<>(soldBySale.size());
+        for (Map.Entry<Long, Integer> entry : soldBySale.entrySet()) {
+            sold.add(new Object[] {entry.getValue(), now, entry.getKey()});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PURCHASE_SQL, rows);
+            jdbcTemplate.batchUpdate(ADD_SOLD_SQL, sold);
+        });
+        logger.debug("Recorded {} flash sale purchases across {} sales", purchases.size(), soldBySale.size());
+    }
+    
+    private void settle(Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            FlashSale flashSale = flashSaleRepository.findById(id).orElse(null);
+            if (flashSale == null || flashSale.isSettled()) {
+                return;
+            }
+            int unsold = flashSale.getAllocatedStock() - flashSale.getSoldCount();
+            if (unsold > 0) {
+                inventoryService.release(List.of(new StockAdjustment(flashSale.getProduct().getId(), unsold)));
+            }
+            flashSale.setSettled(true);
+            flashSaleRepository.save(flashSale);
+            logger.info("Settled flash sale {}: {} sold, {} returned to stock", id, flashSale.getSoldCount(), unsold);
+        });
+    }
+    
+    private static FlashSaleDto view(FlashSaleEngine.Sale sale) {
+        FlashSaleDto source = sale.getFlashSale();
+        FlashSaleDto flashSaleDto = new FlashSaleDto();
+        flashSaleDto.setId(source.getId());
+        flashSaleDto.setProductId(source.getProductId());
+        flashSaleDto.setProductName(source.getProductName());
+        flashSaleDto.setTitle(source.getTitle());
+        flashSaleDto.setDescription(source.getDescription());
+        flashSaleDto.setSalePrice(source.getSalePrice());
+        flashSaleDto.setOriginalPrice(source.getOriginalPrice());
+        flashSaleDto.setStartTime(source.getStartTime());
+        flashSaleDto.setEndTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(sale.getEndMillis()), ZoneId.systemDefault()));
+        flashSaleDto.setAllocatedStock(source.getAllocatedStock());
+        flashSaleDto.setRemainingStock(sale.remaining());
+        flashSaleDto.setPerCustomerLimit(source.getPerCustomerLimit());
+        flashSaleDto.setStatus(sale.status());
+        return flashSaleDto;
+    }
+    
+    private static final class PendingPurchase {
+        
+        private final Long saleId;
+        private final Long userId;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+        private final LocalDateTime purchasedAt;
+        
+        PendingPurchase(Long saleId, Long userId, int quantity, BigDecimal unitPrice, LocalDateTime purchasedAt) {
+            this.saleId = saleId;
+            this.userId = userId;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.purchasedAt = purchasedAt;
+        }
+    }
+}
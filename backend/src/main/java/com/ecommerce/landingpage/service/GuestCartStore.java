@@ -0,0 +1,97 @@
+package com.ecommerce.landingpage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+
+// Carts for visitors who haven't signed in, named by a random token in the GUEST_CART cookie.
+// They exist only in memory: at most max-carts of them, each dropped after ttl without use,
+// and never written to the database. Signing in merges the guest cart into the user's cart.
+@Component
+public class GuestCartStore {
+    
+    public static final String COOKIE_NAME = "GUEST_CART";
+    
+    private static final int TOKEN_BYTES = 24;
+    
+    @Value("${app.carts.guest.max-carts:100000}")
+    private long maxCarts;
+    
+    @Value("${app.carts.guest.ttl:7d}")
+    private Duration ttl;
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    private Cache<String, CartStore.CartState> carts;
+    
+    @PostConstruct
+    void init() {
+        carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+    
+    // The token itself while its cart is alive, otherwise a newly minted token for a new empty
+    // cart; tokens the server didn't issue are never adopted
+    public String open(String token) {
+        if (token != null && carts.getIfPresent(token) != null) {
+            return token;
+        }
+        String created = newToken();
+        carts.put(created, new CartStore.CartState());
+        return created;
+    }
+    
+    // An unknown or missing token reads as an empty cart
+    public <T> T read(String token, Function<CartStore.CartState, T> reader) {
+        CartStore.CartState cart = token != null ? carts.getIfPresent(token) : null;
+        if (cart == null) {
+            return reader.apply(new CartStore.CartState());
+        }
+        synchronized (cart) {
+            return reader.apply(cart);
+        }
+    }
+    
+    // The token must come from open()
+    public <T> T update(String token, Function<CartStore.CartState, T> mutation) {
+        CartStore.CartState cart = carts.get(token, key -> new CartStore.CartState());
+        synchronized (cart) {
+            return CartStore.mutate(cart, mutation);
+        }
+    }
+    
+    public CartStore.CartState remove(String token) {
+        return token != null ? carts.asMap().remove(token) : null;
+    }
+    
+    public ResponseCookie cookie(String token) {
+        return cookieBuilder(token).maxAge(ttl).build();
+    }
+    
+    public ResponseCookie expiredCookie() {
+        return cookieBuilder("").maxAge(Duration.ZERO).build();
+    }
+    
+    private static ResponseCookie.ResponseCookieBuilder cookieBuilder(String value) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax");
+    }
+    
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ImageDto;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Content-addressed image store on local disk. An upload is named by the SHA-256 of its bytes,
+// so the same image uploaded twice is stored once and a URL never changes meaning, which lets
+// clients cache it forever. Thumbnails are rendered once at upload time, next to the original.
+@Service
+public class ImageStorageService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorageService.class);
+    
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})(?:-(\\d+))?\\.(png|jpg|gif|bmp)");
+    private static final Pattern DATA_URL = Pattern.compile("data:image/[\\w.+-]+;base64,(.*)", Pattern.DOTALL);
+    private static final Map<String, String> EXTENSIONS = Map.of("png", "png", "jpeg", "jpg", "gif", "gif", "bmp", "bmp");
+    private static final Map<String, String> CONTENT_TYPES = Map.of("png", "image/png", "jpg", "image/jpeg",
+            "gif", "image/gif", "bmp", "image/bmp");
+    
+    private static final long MAX_PIXELS = 40_000_000L;
+    
+    @Value("${app.images.dir:images}")
+    private Path directory;
+    
+    @Value("${app.images.base-url:/api/images}")
+    private String baseUrl;
+    
+    @Value("${app.images.thumbnail-sizes:160,480}")
+    private List<Integer> thumbnailSizes;
+    
+    @Value("${app.images.max-bytes:10485760}")
+    private long maxBytes;
+    
+    public ImageDto store(byte[] data) {
+        if (data.length == 0 || data.length > maxBytes) {
+            throw new BadRequestException("Image must be between 1 and " + maxBytes + " bytes");
+        }
+        
+        String hash = sha256(data);
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new BadRequestException("Unsupported image type");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String extension = EXTENSIONS.get(reader.getFormatName().toLowerCase());
+                if (extension == null) {
+                    throw new BadRequestException("Unsupported image type: " + reader.getFormatName());
+                }
+                
+                Path original = path(hash + "." + extension);
+                if (Files.exists(original)) {
+                    return toDto(hash, extension, data.length);
+                }
+                
+                reader.setInput(input, true, true);
+                // Check the header before decoding, so a tiny file can't expand into gigabytes
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new BadRequestException("Image dimensions are too large");
+                }
+                BufferedImage image = reader.read(0);
+                
+                // The original goes last: its presence means the thumbnails are complete
+                Files.createDirectories(original.getParent());
+                for (Integer size : thumbnailSizes) {
+                    writeThumbnail(image, size, path(thumbnailName(hash, size, extension)));
+                }
+                write(original, data);
+                logger.debug("Stored image {}.{} ({} bytes)", hash, extension, data.length);
+                return toDto(hash, extension, data.length);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + hash, e);
+        }
+    }
+    
+    // Moves an inline data URL into the store and returns its short URL; anything else is
+    // already a URL and is returned unchanged
+    public String externalize(String image) {
+        if (image == null) {
+            return null;
+        }
+        Matcher matcher = DATA_URL.matcher(image);
+        if (!matcher.matches()) {
+            return image;
+        }
+        
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(matcher.group(1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid base64 image data");
+        }
+        return store(data).getUrl();
+    }
+    
+    public Path resolve(String name) {
+        if (!NAME.matcher(name).matches()) {
+            throw new ResourceNotFoundException("Image not found: " + name);
+        }
+        Path path = path(name);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Image not found: " + name);
+        }
+        return path;
+    }
+    
+    public String contentType(String name) {
+        return CONTENT_TYPES.get(name.substring(name.lastIndexOf('.') + 1));
+    }
+    
+    private ImageDto toDto(String hash, String extension, long size) {
+        Map<Integer, String> thumbnails = new LinkedHashMap<>();
+        for (Integer thumbnailSize : thumbnailSizes) {
+            thumbnails.put(thumbnailSize, baseUrl + "/" + thumbnailName(hash, thumbnailSize, extension));
+        }
+        return new ImageDto(baseUrl + "/" + hash + "." + extension, thumbnails, contentType(hash + "." + extension), size);
+    }
+    
+    // Thumbnails are JPEG for JPEG originals and PNG (keeping transparency) for everything else
+    private static String thumbnailName(String hash, int size, String extension) {
+        return hash + "-" + size + "." + ("jpg".equals(extension) ? "jpg" : "png");
+    }
+    
+    // Fanned out by the first two hex digits to keep directories small
+    private Path path(String name) {
+        return directory.resolve(name.substring(0, 2)).resolve(name);
+    }
+    
+    private static void writeThumbnail(BufferedImage image, int size, Path target) throws IOException {
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        boolean jpeg = target.getFileName().toString().endsWith(".jpg");
+        
+        BufferedImage thumbnail = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        
+        Path temp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+        try {
+            ImageIO.write(thumbnail, jpeg ? "jpeg" : "png", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // Written under a temporary name and renamed, so readers never see a partial file
+    private static void write(Path target, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "upload", ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.StockAdjustment;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.exception.InsufficientStockException;
+import com.ecommerce.landingpage.exception.ResourceNotFoundException;
+import com.ecommerce.landingpage.model.Product;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Stock changes as single conditional UPDATEs, so concurrent checkouts can't oversell: the
+// database checks and decrements in one step and a losing request sees 0 rows updated.
+// Lines are merged per product and applied in id order, so two multi-line orders always
+// lock rows in the same order and can't deadlock each other. The whole adjustment is one
+// transaction: if any line fails, none of it is applied.
+@Service
+public class InventoryService {
+    
+    private static final String RESERVE_SQL = "UPDATE products SET stock = stock - ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND active = true AND stock >= ?";
+    private static final String RELEASE_SQL = "UPDATE products SET stock = stock + ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private TransactionRetryTemplate transactionRetryTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Takes the quantities out of stock, or throws InsufficientStockException (409) naming the
+    // first product that can't cover its line
+    public List<ProductDto> reserve(List<StockAdjustment> items) {
+        Map<Long, Integer> quantities = merge(items);
+        return transactionRetryTemplate.execute(() -> {
+            int[] counts = apply(RESERVE_SQL, quantities, true);
+            int i = 0;
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                if (counts[i++] == 0) {
+                    throw rejection(line.getKey(), line.getValue());
+                }
+            }
+            return changed(quantities);
+        });
+    }
+    
+    // Puts the quantities back, e.g. for a cancelled order; also works for deactivated products
+    public List<ProductDto> release(List<StockAdjustment> items) {
+        Map<Long, Integer> quantities = merge(items);
+        return transactionRetryTemplate.execute(() -> {
+            int[] counts = apply(RELEASE_SQL, quantities, false);
+            int i = 0;
+            for (Long productId : quantities.keySet()) {
+                if (counts[i++] == 0) {
+                    throw new ResourceNotFoundException("Product not found with id: " + productId);
+                }
+            }
+            return changed(quantities);
+        });
+    }
+    
+    private static Map<Long, Integer> merge(List<StockAdjustment> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockAdjustment item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Each item needs a product id and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+        }
+        return quantities;
+    }
+    
+    private int[] apply(String sql, Map<Long, Integer> quantities, boolean checkStock) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            args.add(checkStock
+                    ? new Object[] {line.getValue(), now, line.getKey(), line.getValue()}
+                    : new Object[] {line.getValue(), now, line.getKey()});
+        }
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+    
+    private RuntimeException rejection(Long productId, int requested) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "SELECT stock FROM products WHERE id = ? AND active = true", Integer.class, productId);
+        if (stock.isEmpty()) {
+            return new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return new InsufficientStockException(productId, requested, stock.get(0));
+    }
+    
+    // The JDBC updates bypassed Hibernate, so drop the cached entities before reading them back,
+    // and again after commit in case a concurrent reader re-cached the old row in between. The
+    // refresh covers products the caller (or open-in-view) already holds in the persistence context.
+    private List<ProductDto> changed(Map<Long, Integer> quantities) {
+        evict(quantities.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(quantities.keySet());
+            }
+        });
+        
+        List<ProductDto> products = new ArrayList<>(quantities.size());
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            entityManager.refresh(product);
+            ProductDto productDto = new ProductDto(product);
+            products.add(productDto);
+            if (product.isActive()) {
+                eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, productDto));
+            }
+        }
+        return products;
+    }
+    
+    private void evict(Iterable<Long> productIds) {
+        for (Long productId : productIds) {
+            entityManagerFactory.getCache().evict(Product.class, productId);
+        }
+    }
+}
@@ -25,7 +25,11 @@ public class OAuth2Service {
     @Autowired
     private RefreshTokenService refreshTokenService;
     
-    public AuthResponse processOAuth2Login(Authentication authentication) {
+    @Autowired
+    private CartService cartService;
+    
+    // guestCartToken, when present, names a guest cart to merge into the user's cart
+    public AuthResponse processOAuth2Login(Authentication authentication, String guestCartToken) {
         if (authentication instanceof OAuth2AuthenticationToken) {
             OAuth2AuthenticationToken oauth2Token = (OAuth2AuthenticationToken) authentication;
             OAuth2User oauth2User = oauth2Token.getPrincipal();
@@ -50,6 +54,10 @@ public class OAuth2Service {
                    // Generate refresh token
                    String refreshToken = refreshTokenService.createRefreshToken(savedUser).getToken();
                    
+                   if (guestCartToken != null) {
+                       cartService.mergeGuestCart(guestCartToken, savedUser.getId());
+                   }
+                   
                    return new AuthResponse(
                        token,
                        refreshToken,
@@ -0,0 +1,174 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.PriceTotals;
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.model.Cart;
+import com.ecommerce.landingpage.model.CartItem;
+import com.ecommerce.landingpage.model.Order;
+import com.ecommerce.landingpage.model.OrderItem;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Cart and order totals. Amounts are converted to long cents once on the way in and back to
+// BigDecimal once on the way out; everything in between is integer arithmetic over primitive
+// arrays. Tax is a flat rate rounded half-up to the cent. Shipping comes from a tier table:
+// the fee of the highest threshold the discounted subtotal reaches, nothing for an empty cart.
+@Component
+public class PricingEngine {
+    
+    private static final long BASIS_POINTS = 10_000;
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Value("${app.pricing.tax-rate:0.08}")
+    private BigDecimal taxRate;
+    
+    // threshold:fee pairs, e.g. "0:5.99,50:0" charges 5.99 below 50 and ships free from 50
+    @Value("${app.pricing.shipping-tiers:0:5.99,50:0}")
+    private List<String> shippingTiers;
+    
+    private long taxBasisPoints;
+    private long[] shippingThresholds;
+    private long[] shippingFees;
+    
+    @PostConstruct
+    void init() {
+        taxBasisPoints = taxRate.movePointRight(4).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        if (taxBasisPoints < 0) {
+            throw new IllegalStateException("app.pricing.tax-rate cannot be negative");
+        }
+        
+        TreeMap<Long, Long> tiers = new TreeMap<>();
+        for (String tier : shippingTiers) {
+            String[] parts = tier.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid app.pricing.shipping-tiers entry: " + tier);
+            }
+            tiers.put(toCents(new BigDecimal(parts[0].trim())), toCents(new BigDecimal(parts[1].trim())));
+        }
+        shippingThresholds = new long[tiers.size()];
+        shippingFees = new long[tiers.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> tier : tiers.entrySet()) {
+            shippingThresholds[i] = tier.getKey();
+            shippingFees[i++] = tier.getValue();
+        }
+    }
+    
+    // Lines from unitPrices[i] x quantities[i] for i < lines
+    public PriceTotals price(long[] unitPrices, int[] quantities, int lines, long discount) {
+        long subtotal = 0;
+        long items = 0;
+        for (int i = 0; i < lines; i++) {
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(unitPrices[i], quantities[i]));
+            items += quantities[i];
+        }
+        
+        long appliedDiscount = Math.min(Math.max(discount, 0), subtotal);
+        long taxable = subtotal - appliedDiscount;
+        long tax = (Math.multiplyExact(taxable, taxBasisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+        long shipping = items == 0 ? 0 : shippingFee(taxable);
+        return new PriceTotals(subtotal, appliedDiscount, tax, shipping, taxable + tax + shipping);
+    }
+    
+    // Priced at current product prices: from the catalog snapshot, plus one query for any
+    // products that have left it
+    public PriceTotals price(Cart cart) {
+        List<CartItem> items = new ArrayList<>(cart.getItems());
+        List<Long> productIds = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            productIds.add(item.getProduct().getId());
+        }
+        Map<Long, Long> prices = currentPrices(productIds);
+        
+        long[] unitPrices = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        int lines = 0;
+        for (CartItem item : items) {
+            Long unitPrice = prices.get(item.getProduct().getId());
+            if (unitPrice != null) {
+                unitPrices[lines] = unitPrice;
+                quantities[lines++] = item.getQuantity();
+            }
+        }
+        return price(unitPrices, quantities, lines, toCents(cart.getDiscount()));
+    }
+    
+    // Priced at the prices captured on the order's lines, so repricing an order never depends
+    // on what the products cost today
+    public PriceTotals price(Order order) {
+        List<OrderItem> items = new ArrayList<>(order.getItems());
+        List<Long> uncaptured = new ArrayList<>();
+        for (OrderItem item : items) {
+            if (item.getPrice() == null) {
+                uncaptured.add(item.getProduct().getId());
+            }
+        }
+        Map<Long, Long> prices = uncaptured.isEmpty() ? Map.of() : currentPrices(uncaptured);
+        
+        long[] unitPrices = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        int lines = 0;
+        for (OrderItem item : items) {
+            Long unitPrice = item.getPrice() != null ? Long.valueOf(toCents(item.getPrice())) : prices.get(item.getProduct().getId());
+            if (unitPrice != null) {
+                unitPrices[lines] = unitPrice;
+                quantities[lines++] = item.getQuantity();
+            }
+        }
+        return price(unitPrices, quantities, lines, toCents(order.getDiscount()));
+    }
+    
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    private long shippingFee(long subtotal) {
+        for (int i = shippingThresholds.length - 1; i >= 0; i--) {
+            if (subtotal >= shippingThresholds[i]) {
+                return shippingFees[i];
+            }
+        }
+        return 0;
+    }
+    
+    // Product id -> unit price in cents. Callers only read ids off the lines' product proxies,
+    // which doesn't initialize them, so this is the only product lookup.
+    private Map<Long, Long> currentPrices(List<Long> productIds) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        Map<Long, Long> prices = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductDto product = snapshot.product(productId);
+            if (product != null) {
+                prices.put(productId, toCents(product.getPrice()));
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Object[] row : productRepository.findPricesByIdIn(missing)) {
+                prices.put((Long) row[0], toCents((BigDecimal) row[1]));
+            }
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class ProductCatalog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Seeded from the clock so versions, and the ETags derived from them, don't repeat across restarts
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    
+    private volatile CatalogSnapshot snapshot;
+    
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+    
+    public synchronized CatalogSnapshot reload() {
+        List<ProductDto> products = productRepository.findByActiveTrueOrderByIdAsc().stream()
+                .map(ProductDto::new)
+                .collect(Collectors.toList());
+        
+        snapshot = new CatalogSnapshot(versions.incrementAndGet(), products);
+        logger.debug("Loaded catalog snapshot v{} with {} active products", snapshot.getVersion(), snapshot.size());
+        eventPublisher.publishEvent(new CatalogReloadedEvent(snapshot));
+        return snapshot;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        snapshot = snapshot().withChanges(versions.incrementAndGet(), List.of(event.getProduct()));
+    }
+}
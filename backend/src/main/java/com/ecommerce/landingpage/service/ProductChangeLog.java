@@ -0,0 +1,98 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductChange;
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Bounded, in-process log of committed product changes. Entries live in a ring buffer, so
+// writers never wait on readers and memory stays fixed; a reader that falls further behind
+// than the buffer holds is told to resync instead. Offsets are "<boot id>-<sequence>", so an
+// offset from before a restart is recognised as stale rather than silently misread.
+@Component
+public class ProductChangeLog {
+    
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ProductChange[] buffer;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    
+    // Sequence of the next entry; entry n lives in buffer[n % capacity]
+    private long nextSequence = 1;
+    
+    public ProductChangeLog(@Value("${app.changes.capacity:10000}") int capacity) {
+        this.buffer = new ProductChange[capacity];
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        append(event.getType().name().toLowerCase(Locale.ROOT), event.getProductId(), event.getProduct());
+    }
+    
+    @EventListener
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        append(ProductChange.RELOAD, null, null);
+    }
+    
+    // Called (on the writer's thread) after every append; listeners must not block
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+    
+    public synchronized long latestSequence() {
+        return nextSequence - 1;
+    }
+    
+    // Entries after the given sequence, at most max of them; null if some of them have
+    // already been overwritten
+    public synchronized List<ProductChange> readAfter(long sequence, int max) {
+        long oldest = Math.max(1, nextSequence - buffer.length);
+        if (sequence + 1 < oldest) {
+            return null;
+        }
+        List<ProductChange> changes = new ArrayList<>();
+        for (long next = sequence + 1; next < nextSequence && changes.size() < max; next++) {
+            changes.add(buffer[(int) (next % buffer.length)]);
+        }
+        return changes;
+    }
+    
+    // Sequence of an offset handed out by this log, or -1 if it is malformed, from an
+    // earlier run, or ahead of anything written
+    public long parseOffset(String offset) {
+        if (offset == null || !offset.startsWith(bootId + "-")) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(offset.substring(bootId.length() + 1));
+            return sequence >= 0 && sequence <= latestSequence() ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    public String offset(long sequence) {
+        return bootId + "-" + sequence;
+    }
+    
+    private void append(String type, Long productId, ProductDto product) {
+        synchronized (this) {
+            long sequence = nextSequence++;
+            buffer[(int) (sequence % buffer.length)] = new ProductChange(offset(sequence), type, productId, product, Instant.now());
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent events over ProductChangeLog. Every subscriber keeps its own offset into the log
+// and is drained on a small worker pool, so a slow client delays only itself and never the
+// product write that produced the change.
+@Component
+public class ProductChangeStream {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeStream.class);
+    
+    private static final int SEND_BATCH = 100;
+    
+    @Autowired
+    private ProductChangeLog changeLog;
+    
+    @Value("${app.changes.stream-timeout:30m}")
+    private Duration streamTimeout;
+    
+    @Value("${app.changes.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2, new ThreadFactory());
+    
+    @PostConstruct
+    public void start() {
+        changeLog.addListener(this::wakeAll);
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    // Without an offset the stream starts at the head of the log. An offset the log no longer
+    // holds (too old, or from before a restart) gets a "reload" event first.
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        long cursor = lastEventId == null || lastEventId.isBlank() ? changeLog.latestSequence() : changeLog.parseOffset(lastEventId);
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.wake();
+        return emitter;
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    private void wakeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.wake();
+        }
+    }
+    
+    // Comment lines keep proxies from closing idle streams
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        // Sequence of the last change sent; only touched by the single running drain
+        private long cursor;
+        
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+        
+        void wake() {
+            pending.set(true);
+            if (running.compareAndSet(false, true)) {
+                executor.execute(this::run);
+            }
+        }
+        
+        private void run() {
+            do {
+                pending.set(false);
+                drain();
+                running.set(false);
+            } while (pending.get() && running.compareAndSet(false, true));
+        }
+        
+        private void drain() {
+            try {
+                while (subscribers.contains(this)) {
+                    List<ProductChange> changes = cursor < 0 ? null : changeLog.readAfter(cursor, SEND_BATCH);
+                    if (changes == null) {
+                        // Changes were missed; the consumer has to resync before following the log again
+                        cursor = changeLog.latestSequence();
+                        String offset = changeLog.offset(cursor);
+                        send(new ProductChange(offset, ProductChange.RELOAD, null, null, Instant.now()));
+                        continue;
+                    }
+                    if (changes.isEmpty()) {
+                        return;
+                    }
+                    for (ProductChange change : changes) {
+                        send(change);
+                        cursor++;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping product change subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+        
+        private void send(ProductChange change) throws IOException {
+            emitter.send(SseEmitter.event().id(change.getId()).name(change.getType()).data(change));
+        }
+    }
+    
+    private static final class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "product-changes-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+
+// Published after product writes; in-memory views listen for it after commit
+public class ProductChangedEvent {
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final ChangeType type;
+    private final ProductDto product;
+    
+    public ProductChangedEvent(ChangeType type, ProductDto product) {
+        this.type = type;
+        this.product = product;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+    
+    public ProductDto getProduct() {
+        return product;
+    }
+    
+    public Long getProductId() {
+        return product.getId();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor: the sort the page was read with plus the sort key and id of the
+// last row, base64url encoded. Decoding yields a probe positioned exactly at that row.
+final class ProductCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private ProductCursor() {}
+    
+    static String encode(Sort.Order order, ProductDto last) {
+        String key = ProductSort.property(order.getProperty()).format(last);
+        String raw = order.getProperty() + SEPARATOR + order.getDirection() + SEPARATOR + last.getId()
+                + (key != null ? SEPARATOR + key : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static ProductDto decode(String cursor, Sort.Order order) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length < 3 || !parts[0].equals(order.getProperty()) || !parts[1].equals(order.getDirection().name())) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+            
+            ProductDto probe = new ProductDto();
+            probe.setId(Long.valueOf(parts[2]));
+            ProductSort.property(order.getProperty()).parseInto(probe, parts.length == 4 ? parts[3] : null);
+            return probe;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.model.Product;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Full catalog dump. Rows come from a forward-only database cursor and are written to the
+// response as they arrive; each entity is detached once written, so memory use doesn't grow
+// with the size of the catalog.
+@Service
+public class ProductExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+    
+    // Same names as the ProductDto properties, so an export can be fed back into the import
+    private static final List<String> CSV_HEADER = Arrays.asList("id", "name", "description", "price", "originalPrice",
+            "discounted", "discountPercentage", "category", "image", "stock", "rating", "reviews", "role", "active",
+            "createdAt", "updatedAt");
+    
+    private static final int FLUSH_INTERVAL = 500;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductFileFormat format, boolean activeOnly, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ProductFileFormat.CSV) {
+            Csv.writeRecord(writer, CSV_HEADER);
+        }
+        
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllOrderById(activeOnly)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                ProductDto productDto = new ProductDto(product);
+                entityManager.detach(product);
+                
+                if (format == ProductFileFormat.CSV) {
+                    Csv.writeRecord(writer, toCsvRecord(productDto));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(productDto));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} products as {}", count, format);
+        return count;
+    }
+    
+    private static List<String> toCsvRecord(ProductDto product) {
+        return Arrays.asList(
+                Objects.toString(product.getId(), null),
+                product.getName(),
+                product.getDescription(),
+                plain(product.getPrice()),
+                plain(product.getOriginalPrice()),
+                Boolean.toString(product.isDiscounted()),
+                plain(product.getDiscountPercentage()),
+                product.getCategory(),
+                product.getImage(),
+                Objects.toString(product.getStock(), null),
+                plain(product.getRating()),
+                Objects.toString(product.getReviews(), null),
+                product.getRole(),
+                Boolean.toString(product.isActive()),
+                Objects.toString(product.getCreatedAt(), null),
+                Objects.toString(product.getUpdatedAt(), null));
+    }
+    
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.landingpage.service;
+
+// Wire formats of the bulk import and export endpoints
+public enum ProductFileFormat {
+    CSV, NDJSON
+}
@@ -0,0 +1,340 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.ProductImportStatus;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import com.ecommerce.landingpage.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bulk product import. Rows are read one at a time from the request body, validated against
+// the ProductDto constraints and inserted with plain JDBC batches (Hibernate can't batch
+// inserts into an IDENTITY table), each batch in its own transaction. A progress line is
+// streamed back after every batch and an error line for every rejected row.
+@Service
+public class ProductImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, price, original_price, " +
+            "discounted, discount_percentage, category, image, stock, rating, reviews, role, active, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+    
+    public void importProducts(InputStream input, ProductFileFormat format, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        
+        try {
+            RowReader rows = format == ProductFileFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            Row row;
+            while ((row = rows.next()) != null) {
+                run.accept(row);
+            }
+            run.flush();
+            run.finish(ProductImportStatus.DONE, null);
+            logger.info("Imported {} products ({} rejected) in {} ms", run.imported, run.failed, run.elapsedMs());
+        } catch (MalformedInputException e) {
+            // The rest of the body can't be parsed reliably; keep what was already committed
+            run.flush();
+            run.finish(ProductImportStatus.ABORTED, e.getMessage());
+            logger.warn("Product import aborted after {} rows: {}", run.processed, e.getMessage());
+        } finally {
+            if (run.imported > 0) {
+                // Plain JDBC inserts bypass Hibernate; only new rows are written, so no cached
+                // entity goes stale and the catalog is all that needs refreshing
+                productCatalog.reload();
+            }
+        }
+    }
+    
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        long[] lineCounter = {0};
+        List<String> header;
+        try {
+            header = Csv.readRecord(reader, lineCounter);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedInputException(e.getMessage());
+        }
+        if (header == null) {
+            return () -> null;
+        }
+        header.replaceAll(String::trim);
+        
+        return () -> {
+            List<String> record;
+            long line;
+            do {
+                line = lineCounter[0] + 1;
+                try {
+                    record = Csv.readRecord(reader, lineCounter);
+                } catch (IllegalArgumentException e) {
+                    throw new MalformedInputException(e.getMessage());
+                }
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+            
+            if (record.size() > header.size()) {
+                return Row.rejected(line, List.of("Expected at most " + header.size() + " columns but found " + record.size()));
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                if (!record.get(i).isEmpty()) {
+                    values.put(header.get(i), record.get(i));
+                }
+            }
+            try {
+                return toRow(line, objectMapper.convertValue(values, ProductDto.class), values.containsKey("active"));
+            } catch (IllegalArgumentException e) {
+                return Row.rejected(line, List.of(e.getCause() instanceof JsonProcessingException
+                        ? describe((JsonProcessingException) e.getCause()) : e.getMessage()));
+            }
+        };
+    }
+    
+    private RowReader ndjsonRows(BufferedReader reader) {
+        long[] lineCounter = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) {
+                    return null;
+                }
+                lineCounter[0]++;
+            } while (text.isBlank());
+            
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                if (!node.isObject()) {
+                    return Row.rejected(lineCounter[0], List.of("Expected a JSON object"));
+                }
+                return toRow(lineCounter[0], objectMapper.treeToValue(node, ProductDto.class), node.hasNonNull("active"));
+            } catch (JsonProcessingException e) {
+                return Row.rejected(lineCounter[0], List.of(describe(e)));
+            }
+        };
+    }
+    
+    // Rows without an active value are imported as active, like products created through the API
+    private Row toRow(long line, ProductDto productDto, boolean activeGiven) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<ProductDto> violation : validator.validate(productDto)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        
+        Product.ProductRole role = Product.ProductRole.PUBLIC;
+        if (productDto.getRole() != null) {
+            try {
+                role = Product.ProductRole.valueOf(productDto.getRole());
+            } catch (IllegalArgumentException e) {
+                errors.add("role: must be one of " + Arrays.toString(Product.ProductRole.values()));
+            }
+        }
+        String image = null;
+        if (errors.isEmpty()) {
+            try {
+                image = imageStorageService.externalize(productDto.getImage());
+            } catch (BadRequestException e) {
+                errors.add("image: " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            errors.sort(null);
+            return Row.rejected(line, errors);
+        }
+        
+        // Let the entity derive the discount columns exactly as a JPA save would
+        Product product = new Product();
+        product.setPrice(productDto.getPrice());
+        product.setOriginalPrice(productDto.getOriginalPrice());
+        
+        LocalDateTime now = LocalDateTime.now();
+        return new Row(line, new Object[] {
+                productDto.getName(),
+                productDto.getDescription(),
+                product.getPrice(),
+                product.getOriginalPrice(),
+                product.hasDiscount(),
+                product.getDiscountPercentage(),
+                productDto.getCategory(),
+                image,
+                productDto.getStock(),
+                productDto.getRating() != null ? productDto.getRating() : BigDecimal.ZERO,
+                productDto.getReviews() != null ? productDto.getReviews() : 0,
+                role.name(),
+                !activeGiven || productDto.isActive(),
+                now,
+                now
+        }, null);
+    }
+    
+    private static String describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException && !((JsonMappingException) e).getPath().isEmpty()) {
+            List<JsonMappingException.Reference> path = ((JsonMappingException) e).getPath();
+            String field = path.get(path.size() - 1).getFieldName();
+            if (field != null) {
+                return field + ": " + e.getOriginalMessage();
+            }
+        }
+        return e.getOriginalMessage();
+    }
+    
+    private final class ImportRun {
+        
+        private final Writer writer;
+        private final long startedAt = System.nanoTime();
+        private final List<Row> batch = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+        
+        ImportRun(Writer writer) {
+            this.writer = writer;
+        }
+        
+        void accept(Row row) throws IOException {
+            processed++;
+            if (row.errors != null) {
+                reject(row, row.errors);
+                return;
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        void flush() throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                args.add(row.args);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, args));
+                imported += batch.size();
+            } catch (DataAccessException e) {
+                // The whole batch was rolled back; replay it row by row to find the offending rows
+                for (Row row : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, row.args));
+                        imported++;
+                    } catch (DataAccessException rowException) {
+                        reject(row, List.of(rowException.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+            batch.clear();
+            
+            write(ProductImportStatus.counts(ProductImportStatus.PROGRESS, processed, imported, failed, elapsedMs()));
+            writer.flush();
+        }
+        
+        void finish(String outcome, String error) throws IOException {
+            ProductImportStatus status = ProductImportStatus.counts(outcome, processed, imported, failed, elapsedMs());
+            if (error != null) {
+                status.setErrors(List.of(error));
+            }
+            write(status);
+            writer.flush();
+        }
+        
+        long elapsedMs() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+        
+        private void reject(Row row, List<String> errors) throws IOException {
+            failed++;
+            write(ProductImportStatus.error(row.line, errors));
+        }
+        
+        private void write(ProductImportStatus status) throws IOException {
+            writer.write(objectMapper.writeValueAsString(status));
+            writer.write('\n');
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowReader {
+        Row next() throws IOException;
+    }
+    
+    private static final class Row {
+        
+        private final long line;
+        private final Object[] args;
+        private final List<String> errors;
+        
+        Row(long line, Object[] args, List<String> errors) {
+            this.line = line;
+            this.args = args;
+            this.errors = errors;
+        }
+        
+        static Row rejected(long line, List<String> errors) {
+            return new Row(line, null, errors);
+        }
+    }
+    
+    private static final class MalformedInputException extends RuntimeException {
+        
+        MalformedInputException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+// Full-view JSON of each product, already encoded as UTF-8, keyed by id plus updatedAt. Every
+// product write bumps updatedAt, so an entry is only served for the exact version it was
+// rendered from; the change listener just frees entries early. At most max-entries products are
+// kept, evicting the least recently used (Caffeine's size policy) to make room for new ones.
+@Component
+public class ProductJsonCache {
+    
+    @Value("${app.product-json-cache.max-entries:50000}")
+    private long maxEntries;
+    
+    private Cache<Long, Fragment> fragments;
+    
+    @PostConstruct
+    void init() {
+        fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        fragments.invalidate(event.getProductId());
+    }
+    
+    public SerializableString get(ProductDto product) {
+        if (product.getId() == null || product.getUpdatedAt() == null) {
+            return null;
+        }
+        Fragment fragment = fragments.getIfPresent(product.getId());
+        return fragment != null && fragment.updatedAt.equals(product.getUpdatedAt()) ? fragment.json : null;
+    }
+    
+    public void put(ProductDto product, String json) {
+        if (product.getId() == null || product.getUpdatedAt() == null) {
+            return;
+        }
+        SerializedString encoded = new SerializedString(json);
+        // Encode now so requests only ever copy the bytes
+        encoded.asUnquotedUTF8();
+        fragments.put(product.getId(), new Fragment(product.getUpdatedAt(), encoded));
+    }
+    
+    private static final class Fragment {
+        
+        private final LocalDateTime updatedAt;
+        private final SerializedString json;
+        
+        Fragment(LocalDateTime updatedAt, SerializedString json) {
+            this.updatedAt = updatedAt;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Tokenized inverted index over product name and description. Each query token matches
+// indexed terms by prefix ("iphon" finds "iphone"), all tokens must match, and hits are
+// ranked by a tf-idf style score where name terms weigh more than description terms.
+// In fuzzy mode, a token that isn't an indexed word also matches name words within a small
+// edit distance ("macbok" finds "macbook"). Those candidates come from a trigram index and
+// only the best few are re-ranked by edit distance, so a bad query stays cheap.
+// Each IndexState is read-only once published: a product change builds a copy that shares every
+// posting it doesn't touch and swaps it in, the way ProductCatalog swaps snapshots, so a search
+// never sees a product half re-indexed.
+@Component
+public class ProductSearchIndex {
+    
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final float FUZZY_MATCH_FACTOR = 0.4f;
+    private static final int MAX_TRIGRAM_POSTINGS = 5000;
+    private static final int MAX_FUZZY_CANDIDATES = 32;
+    
+    // Most products first, then alphabetically so ties stay deterministic
+    private static final Comparator<Map.Entry<String, Map<Long, Float>>> BY_POSTING_SIZE =
+            Comparator.comparing((Map.Entry<String, Map<Long, Float>> posting) -> posting.getValue().size(), Comparator.reverseOrder())
+                    .thenComparing(Map.Entry::getKey);
+    private static final Comparator<Map.Entry<String, Integer>> BY_OVERLAP =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    private volatile IndexState state;
+    
+    @EventListener
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild(event.getSnapshot());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        IndexState current = state;
+        if (current == null) {
+            return;
+        }
+        ProductDto product = event.getProduct();
+        // Stock and price updates leave the indexed text alone and skip the copy
+        if (product.isActive() ? current.indexes(product) : !current.contains(event.getProductId())) {
+            return;
+        }
+        IndexState next = new IndexState(current);
+        next.remove(event.getProductId());
+        if (product.isActive()) {
+            next.add(product);
+        }
+        state = next;
+    }
+    
+    // Product id -> relevance for every product matching all tokens, in no particular order;
+    // callers rank only as many as they show
+    public Map<Long, Float> scores(String text, boolean fuzzy) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        IndexState current = currentState();
+        Map<Long, Float> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Long, Float> matches = current.match(token, fuzzy);
+            scores = scores == null ? matches : intersect(scores, matches);
+            if (scores.isEmpty()) {
+                return Collections.emptyMap();
+            }
+        }
+        return scores;
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    private IndexState currentState() {
+        IndexState current = state;
+        if (current == null) {
+            // Loading the catalog publishes CatalogReloadedEvent, which builds the index
+            CatalogSnapshot snapshot = productCatalog.snapshot();
+            current = state;
+            if (current == null) {
+                rebuild(snapshot);
+                current = state;
+            }
+        }
+        return current;
+    }
+    
+    private synchronized void rebuild(CatalogSnapshot snapshot) {
+        IndexState rebuilt = new IndexState();
+        for (ProductDto product : snapshot.products()) {
+            rebuilt.add(product);
+        }
+        state = rebuilt;
+    }
+    
+    private static Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Float> larger = smaller == left ? right : left;
+        Map<Long, Float> result = new HashMap<>();
+        for (Map.Entry<Long, Float> entry : smaller.entrySet()) {
+            Float other = larger.get(entry.getKey());
+            if (other != null) {
+                result.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return result;
+    }
+    
+    // Padded so word boundaries count: "ipad" -> "$ip", "ipa", "pad", "ad$"
+    private static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+    
+    private static int maxEdits(String token) {
+        return token.length() < 4 ? 0 : token.length() < 8 ? 1 : 2;
+    }
+    
+    // Optimal string alignment distance (a transposition counts as one edit), giving up
+    // with max + 1 as soon as every alignment is already over the limit
+    private static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+    
+    // term -> weight within one product, name terms weighing more than description terms
+    private static Map<String, Float> termWeights(ProductDto product) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return weights;
+    }
+    
+    private static final class IndexState {
+        
+        // term -> (product id -> term weight within that product)
+        private final TreeMap<String, Map<Long, Float>> postings;
+        private final Map<Long, Set<String>> documentTerms;
+        // Name vocabulary for fuzzy matching: trigram -> name terms, and how many products use each term
+        private final Map<String, Set<String>> trigramTerms;
+        private final Map<String, Integer> nameTermCounts;
+        private final Map<Long, Set<String>> documentNameTerms;
+        // Set in a copy: the inner postings and trigram sets still belong to the state it was copied
+        // from, so each is copied before its first change (and recorded here)
+        private final Set<String> copiedPostings;
+        private final Set<String> copiedGrams;
+        
+        IndexState() {
+            postings = new TreeMap<>();
+            documentTerms = new HashMap<>();
+            trigramTerms = new HashMap<>();
+            nameTermCounts = new HashMap<>();
+            documentNameTerms = new HashMap<>();
+            copiedPostings = null;
+            copiedGrams = null;
+        }
+        
+        IndexState(IndexState source) {
+            postings = new TreeMap<>(source.postings);
+            documentTerms = new HashMap<>(source.documentTerms);
+            trigramTerms = new HashMap<>(source.trigramTerms);
+            nameTermCounts = new HashMap<>(source.nameTermCounts);
+            documentNameTerms = new HashMap<>(source.documentNameTerms);
+            copiedPostings = new HashSet<>();
+            copiedGrams = new HashSet<>();
+        }
+        
+        boolean contains(Long productId) {
+            return documentTerms.containsKey(productId);
+        }
+        
+        // True when the product is indexed with exactly the terms and weights it has now
+        boolean indexes(ProductDto product) {
+            Set<String> nameTerms = documentNameTerms.get(product.getId());
+            if (nameTerms == null || !nameTerms.equals(new HashSet<>(tokenize(product.getName())))) {
+                return false;
+            }
+            Map<String, Float> weights = termWeights(product);
+            if (!weights.keySet().equals(documentTerms.get(product.getId()))) {
+                return false;
+            }
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                if (!weight.getValue().equals(postings.get(weight.getKey()).get(product.getId()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        void add(ProductDto product) {
+            Map<String, Float> weights = termWeights(product);
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                writablePosting(weight.getKey()).put(product.getId(), weight.getValue());
+            }
+            documentTerms.put(product.getId(), weights.keySet());
+            
+            Set<String> nameTerms = new HashSet<>(tokenize(product.getName()));
+            for (String term : nameTerms) {
+                if (nameTermCounts.merge(term, 1, Integer::sum) == 1) {
+                    for (String gram : trigrams(term)) {
+                        writableGram(gram).add(term);
+                    }
+                }
+            }
+            documentNameTerms.put(product.getId(), nameTerms);
+        }
+        
+        void remove(Long productId) {
+            Set<String> nameTerms = documentNameTerms.remove(productId);
+            if (nameTerms != null) {
+                for (String term : nameTerms) {
+                    if (nameTermCounts.merge(term, -1, Integer::sum) == 0) {
+                        nameTermCounts.remove(term);
+                        for (String gram : trigrams(term)) {
+                            Set<String> terms = writableGram(gram);
+                            terms.remove(term);
+                            if (terms.isEmpty()) {
+                                trigramTerms.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+            
+            Set<String> terms = documentTerms.remove(productId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Float> documents = writablePosting(term);
+                documents.remove(productId);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        
+        private Map<Long, Float> writablePosting(String term) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents == null || (copiedPostings != null && copiedPostings.add(term))) {
+                documents = documents == null ? new HashMap<>() : new HashMap<>(documents);
+                postings.put(term, documents);
+            }
+            return documents;
+        }
+        
+        private Set<String> writableGram(String gram) {
+            Set<String> terms = trigramTerms.get(gram);
+            if (terms == null || (copiedGrams != null && copiedGrams.add(gram))) {
+                terms = terms == null ? new HashSet<>() : new HashSet<>(terms);
+                trigramTerms.put(gram, terms);
+            }
+            return terms;
+        }
+        
+        Map<Long, Float> match(String token, boolean fuzzy) {
+            Map<Long, Float> matches = new HashMap<>();
+            double documentCount = Math.max(1, documentTerms.size());
+            Map<Long, Float> exact = postings.get(token);
+            if (exact != null) {
+                merge(matches, exact, idf(exact, documentCount));
+            }
+            
+            Collection<Map.Entry<String, Map<Long, Float>>> expansions =
+                    postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet();
+            if (TopK.hasMoreThan(expansions, MAX_PREFIX_EXPANSIONS)) {
+                // A short prefix keeps the expansions found in the most products, rather than
+                // whichever terms sort first alphabetically
+                expansions = TopK.best(expansions, MAX_PREFIX_EXPANSIONS, BY_POSTING_SIZE);
+            }
+            for (Map.Entry<String, Map<Long, Float>> posting : expansions) {
+                merge(matches, posting.getValue(), idf(posting.getValue(), documentCount) * PREFIX_MATCH_FACTOR);
+            }
+            
+            // Only a token that isn't itself an indexed word is treated as a possible typo
+            if (fuzzy && !postings.containsKey(token)) {
+                for (Map.Entry<String, Integer> candidate : fuzzyCandidates(token).entrySet()) {
+                    Map<Long, Float> documents = postings.get(candidate.getKey());
+                    if (documents != null) {
+                        merge(matches, documents, idf(documents, documentCount) * (float) Math.pow(FUZZY_MATCH_FACTOR, candidate.getValue()));
+                    }
+                }
+            }
+            return matches;
+        }
+        
+        // Name terms within maxEdits of the token, mapped to their edit distance
+        private Map<String, Integer> fuzzyCandidates(String token) {
+            int maxEdits = maxEdits(token);
+            if (maxEdits == 0) {
+                return Collections.emptyMap();
+            }
+            
+            Map<String, Integer> overlaps = new HashMap<>();
+            int scanned = 0;
+            scan:
+            for (String gram : trigrams(token)) {
+                Set<String> terms = trigramTerms.get(gram);
+                if (terms == null) {
+                    continue;
+                }
+                for (String term : terms) {
+                    if (scanned++ >= MAX_TRIGRAM_POSTINGS) {
+                        break scan;
+                    }
+                    if (Math.abs(term.length() - token.length()) <= maxEdits) {
+                        overlaps.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            
+            Map<String, Integer> candidates = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : TopK.best(overlaps.entrySet(), MAX_FUZZY_CANDIDATES, BY_OVERLAP)) {
+                int distance = editDistance(token, entry.getKey(), maxEdits);
+                if (distance <= maxEdits) {
+                    candidates.put(entry.getKey(), distance);
+                }
+            }
+            return candidates;
+        }
+        
+        private static float idf(Map<Long, Float> documents, double documentCount) {
+            return (float) Math.log(1 + documentCount / Math.max(1, documents.size()));
+        }
+        
+        private static void merge(Map<Long, Float> matches, Map<Long, Float> documents, float factor) {
+            for (Map.Entry<Long, Float> document : documents.entrySet()) {
+                matches.merge(document.getKey(), document.getValue() * factor, Math::max);
+            }
+        }
+    }
+}
@@ -1,32 +1,129 @@
 package com.ecommerce.landingpage.service;
 
+import com.ecommerce.landingpage.dto.CursorPage;
+import com.ecommerce.landingpage.dto.ProductBatchResult;
 import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.ProductSearchResult;
+import com.ecommerce.landingpage.dto.ProductSuggestion;
+import com.ecommerce.landingpage.exception.BadRequestException;
 import com.ecommerce.landingpage.exception.ResourceNotFoundException;
 import com.ecommerce.landingpage.model.Product;
 import com.ecommerce.landingpage.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+// Reads are served from the in-memory ProductCatalog and run without a transaction, so they
+// never check out a connection; only writes go to the database.
 @Service
 @Transactional
 public class ProductService {
     
+    private static final Sort.Order ID_ORDER = Sort.Order.asc("id");
+    private static final Sort.Order TOP_RATED_ORDER = Sort.Order.desc("rating");
+    
+    private static final int MAX_BATCH_IDS = 500;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private TopRatedRanking topRatedRanking;
+    
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private TransactionRetryTemplate transactionRetryTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.search.price-buckets:25,50,100,250,500,1000}")
+    private List<BigDecimal> priceBucketBounds;
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable)
-                .map(ProductDto::new);
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        return page(catalog, "all", catalog.products(), pageable);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ProductBatchResult getProductsByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " product ids can be requested at once");
+        }
+        
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        List<ProductDto> products = new ArrayList<>(ids.size());
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            ProductDto product = catalog.product(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                misses.add(id);
+            }
+        }
+        
+        // One query for everything the catalog doesn't hold, to tell unknown ids from deactivated products
+        List<Long> inactive = new ArrayList<>();
+        if (!misses.isEmpty()) {
+            Set<Long> existing = new HashSet<>();
+            for (Product product : productRepository.findAllById(misses)) {
+                existing.add(product.getId());
+            }
+            for (Long id : misses) {
+                if (existing.contains(id)) {
+                    inactive.add(id);
+                }
+            }
+            misses.removeAll(existing);
+        }
+        return new ProductBatchResult(products, new ArrayList<>(misses), inactive);
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDto getProductById(Long id) {
+        ProductDto cached = productCatalog.snapshot().product(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Only misses reach the database, to tell unknown ids from deactivated products
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         
@@ -44,7 +141,7 @@ public class ProductService {
         product.setPrice(productDto.getPrice());
         product.setOriginalPrice(productDto.getOriginalPrice());
         product.setCategory(productDto.getCategory());
-        product.setImage(productDto.getImage());
+        product.setImage(imageStorageService.externalize(productDto.getImage()));
         product.setStock(productDto.getStock());
         product.setRating(productDto.getRating() != null ? productDto.getRating() : BigDecimal.ZERO);
         product.setReviews(productDto.getReviews() != null ? productDto.getReviews() : 0);
@@ -52,10 +149,32 @@ public class ProductService {
         product.setActive(true);
         
         Product savedProduct = productRepository.save(product);
-        return new ProductDto(savedProduct);
+        ProductDto savedDto = new ProductDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.ChangeType.CREATED, savedDto));
+        return savedDto;
     }
     
+    // Retried on a version conflict (e.g. a stock reservation landed between read and write),
+    // so these run in their own transaction rather than the class-level one
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductDto updateProduct(Long id, ProductDto productDto) {
+        return transactionRetryTemplate.execute(() -> applyUpdate(id, productDto));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void deleteProduct(Long id) {
+        transactionRetryTemplate.execute(() -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+            
+            product.setActive(false);
+            Product deletedProduct = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED, new ProductDto(deletedProduct)));
+            return null;
+        });
+    }
+    
+    private ProductDto applyUpdate(Long id, ProductDto productDto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         
@@ -80,7 +199,7 @@ public class ProductService {
         }
         
         if (productDto.getImage() != null) {
-            product.setImage(productDto.getImage());
+            product.setImage(imageStorageService.externalize(productDto.getImage()));
         }
         
         if (productDto.getStock() != null) {
@@ -99,50 +218,240 @@ public class ProductService {
             product.setRole(Product.ProductRole.valueOf(productDto.getRole()));
         }
         
-        Product updatedProduct = productRepository.save(product);
-        return new ProductDto(updatedProduct);
-    }
-    
-    public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        
-        product.setActive(false);
-        productRepository.save(product);
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        ProductDto updatedDto = new ProductDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, updatedDto));
+        return updatedDto;
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getProductsByCategory(String category, Pageable pageable) {
-        return productRepository.findByCategoryAndActiveTrue(category, pageable)
-                .map(ProductDto::new);
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        return page(catalog, "category:" + category, catalog.productsInCategory(category), pageable);
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findByActiveTrueAndPriceBetween(minPrice, maxPrice, pageable)
-                .map(ProductDto::new);
+        List<ProductDto> matches = productCatalog.snapshot().products().stream()
+                .filter(product -> product.getPrice().compareTo(minPrice) >= 0 && product.getPrice().compareTo(maxPrice) <= 0)
+                .collect(Collectors.toList());
+        return page(matches, pageable);
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> searchProducts(String category, BigDecimal minPrice, BigDecimal maxPrice, 
-                                         String searchTerm, Pageable pageable) {
-        return productRepository.findProductsWithFilters(category, minPrice, maxPrice, searchTerm, pageable)
-                .map(ProductDto::new);
+                                         String searchTerm, boolean fuzzy, Pageable pageable) {
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        Map<Long, Float> relevance = relevance(searchTerm, fuzzy);
+        List<ProductDto> matches = new ArrayList<>();
+        for (ProductDto product : searchCandidates(catalog, category, relevance)) {
+            if (inCategory(product, category) && inPriceRange(product, minPrice, maxPrice)) {
+                matches.add(product);
+            }
+        }
+        return rankedPage(matches, relevance, pageable);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ProductSearchResult searchProductsWithFacets(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                                        String searchTerm, boolean fuzzy, Pageable pageable) {
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        SearchFacetCollector facets = new SearchFacetCollector(priceBucketBounds);
+        Map<Long, Float> relevance = relevance(searchTerm, fuzzy);
+        List<ProductDto> matches = new ArrayList<>();
+        
+        // Facets need every product matching the search term, so the category is not used to narrow candidates
+        for (ProductDto product : searchCandidates(catalog, null, relevance)) {
+            boolean inCategory = inCategory(product, category);
+            boolean inPriceRange = inPriceRange(product, minPrice, maxPrice);
+            facets.collect(product, inCategory, inPriceRange);
+            if (inCategory && inPriceRange) {
+                matches.add(product);
+            }
+        }
+        return new ProductSearchResult(rankedPage(matches, relevance, pageable), facets.toFacets());
+    }
+    
+    // Validators for conditional GETs. They come from the in-memory catalog, so answering
+    // a revalidation with 304 never reaches the database.
+    public String getCatalogETag() {
+        return "\"catalog-" + productCatalog.snapshot().getVersion() + "\"";
+    }
+    
+    public long getCatalogLastModified() {
+        return productCatalog.snapshot().getPublishedAt().toEpochMilli();
+    }
+    
+    public String getProductETag(Long id) {
+        ProductDto product = productCatalog.snapshot().product(id);
+        if (product == null || product.getUpdatedAt() == null) {
+            return null;
+        }
+        return "\"product-" + id + "-" + toEpochMilli(product.getUpdatedAt()) + "\"";
+    }
+    
+    public long getProductLastModified(Long id) {
+        ProductDto product = productCatalog.snapshot().product(id);
+        return product != null && product.getUpdatedAt() != null ? toEpochMilli(product.getUpdatedAt()) : -1;
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, Math.min(limit, productSuggestIndex.getTopK()));
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<String> getAllCategories() {
-        return productRepository.findAllCategories();
+        return productCatalog.snapshot().categories();
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getInStockProducts(Pageable pageable) {
-        return productRepository.findByActiveTrueAndStockGreaterThan(0, pageable)
-                .map(ProductDto::new);
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        return page(catalog, "in-stock", catalog.inStockProducts(), pageable);
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getTopRatedProducts(Pageable pageable) {
-        return productRepository.findTopRatedProducts(pageable)
-                .map(ProductDto::new);
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        Page<Long> ids = topRatedRanking.page(pageable);
+        return new PageImpl<>(resolve(catalog, ids.getContent()), pageable, ids.getTotalElements());
     }
     
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> getDiscountedProducts(Pageable pageable) {
-        return productRepository.findDiscountedProducts(pageable)
-                .map(ProductDto::new);
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        return page(catalog, "discounted", catalog.discountedProducts(), pageable);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<ProductDto> getAllProductsAfter(String after, int size, Sort.Order order) {
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        return seek(catalog.sorted("all", catalog.products(), Sort.by(order)), order, after, size);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<ProductDto> getProductsByCategoryAfter(String category, String after, int size) {
+        return seek(productCatalog.snapshot().productsInCategory(category), ID_ORDER, after, size);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<ProductDto> getInStockProductsAfter(String after, int size) {
+        return seek(productCatalog.snapshot().inStockProducts(), ID_ORDER, after, size);
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<ProductDto> getTopRatedProductsAfter(String after, int size) {
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        List<Long> ids;
+        if (after != null && !after.isBlank()) {
+            ProductDto probe = ProductCursor.decode(after, TOP_RATED_ORDER);
+            ids = topRatedRanking.after(probe.getRating(), probe.getId(), size + 1);
+        } else {
+            ids = topRatedRanking.page(0, size + 1);
+        }
+        
+        // One extra id is read to learn whether another page follows
+        List<ProductDto> content = resolve(catalog, ids.subList(0, Math.min(size, ids.size())));
+        String nextCursor = ids.size() > size && !content.isEmpty()
+                ? ProductCursor.encode(TOP_RATED_ORDER, content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+    
+    // Product id -> relevance to the search term, or null when there is no term to search for
+    private Map<Long, Float> relevance(String searchTerm, boolean fuzzy) {
+        return searchTerm == null || searchTerm.isBlank() ? null : productSearchIndex.scores(searchTerm, fuzzy);
+    }
+    
+    private List<ProductDto> searchCandidates(CatalogSnapshot catalog, String category, Map<Long, Float> relevance) {
+        if (relevance == null) {
+            return category != null ? catalog.productsInCategory(category) : catalog.products();
+        }
+        
+        return resolve(catalog, relevance.keySet());
+    }
+    
+    // Ids are looked up in the snapshot; products deactivated since they were indexed drop out
+    private static List<ProductDto> resolve(CatalogSnapshot catalog, Collection<Long> ids) {
+        List<ProductDto> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductDto product = catalog.product(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+    
+    private static boolean inCategory(ProductDto product, String category) {
+        return category == null || category.equals(product.getCategory());
+    }
+    
+    private static boolean inPriceRange(ProductDto product, BigDecimal minPrice, BigDecimal maxPrice) {
+        return (minPrice == null || product.getPrice().compareTo(minPrice) >= 0)
+                && (maxPrice == null || product.getPrice().compareTo(maxPrice) <= 0);
+    }
+    
+    private Page<ProductDto> page(CatalogSnapshot catalog, String viewName, List<ProductDto> view, Pageable pageable) {
+        return slice(catalog.sorted(viewName, view, pageable.getSort()), pageable);
+    }
+    
+    private Page<ProductDto> page(List<ProductDto> items, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            items.sort(ProductSort.comparator(pageable.getSort()));
+        }
+        return slice(items, pageable);
+    }
+    
+    // Search hits without an explicit sort come back most relevant first. Only the hits up to the
+    // end of the requested page are put in order; the rest are just counted.
+    private Page<ProductDto> rankedPage(List<ProductDto> matches, Map<Long, Float> relevance, Pageable pageable) {
+        if (relevance == null || pageable.getSort().isSorted()) {
+            return page(matches, pageable);
+        }
+        Comparator<ProductDto> byRelevance = Comparator
+                .comparing((ProductDto product) -> relevance.get(product.getId()), Comparator.reverseOrder())
+                .thenComparing(ProductDto::getId);
+        if (pageable.isUnpaged()) {
+            matches.sort(byRelevance);
+            return slice(matches, pageable);
+        }
+        if (pageable.getOffset() >= matches.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, matches.size());
+        }
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), matches.size());
+        List<ProductDto> best = TopK.best(matches, end, byRelevance);
+        return new PageImpl<>(best.subList((int) pageable.getOffset(), end), pageable, matches.size());
+    }
+    
+    private Page<ProductDto> slice(List<ProductDto> items, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(items, pageable, items.size());
+        }
+        if (pageable.getOffset() >= items.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, items.size());
+        }
+        int from = (int) pageable.getOffset();
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return new PageImpl<>(items.subList(from, to), pageable, items.size());
+    }
+    
+    // Keyset seek: binary search for the cursor row in the sorted view, then read forward
+    private CursorPage<ProductDto> seek(List<ProductDto> sortedView, Sort.Order order, String after, int size) {
+        int from = 0;
+        if (after != null && !after.isBlank()) {
+            ProductDto probe = ProductCursor.decode(after, order);
+            int position = Collections.binarySearch(sortedView, probe, ProductSort.comparator(Sort.by(order)));
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        
+        int to = Math.min(from + size, sortedView.size());
+        List<ProductDto> content = sortedView.subList(from, to);
+        String nextCursor = to < sortedView.size() ? ProductCursor.encode(order, content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+    
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
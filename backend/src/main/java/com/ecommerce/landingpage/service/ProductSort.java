@@ -0,0 +1,87 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Maps Spring Data sorts onto ProductDto comparators, always tie-breaking on id
+public final class ProductSort {
+    
+    private static final Comparator<ProductDto> BY_ID = Comparator.comparing(ProductDto::getId);
+    
+    private static final Map<String, Property<?>> PROPERTIES = Map.ofEntries(
+            Map.entry("id", new Property<>(ProductDto::getId, ProductDto::setId, Long::valueOf)),
+            Map.entry("name", new Property<>(ProductDto::getName, ProductDto::setName, Function.identity())),
+            Map.entry("price", new Property<>(ProductDto::getPrice, ProductDto::setPrice, BigDecimal::new)),
+            Map.entry("originalPrice", new Property<>(ProductDto::getOriginalPrice, ProductDto::setOriginalPrice, BigDecimal::new)),
+            Map.entry("discountPercentage", new Property<>(ProductDto::getDiscountPercentage, ProductDto::setDiscountPercentage, BigDecimal::new)),
+            Map.entry("category", new Property<>(ProductDto::getCategory, ProductDto::setCategory, Function.identity())),
+            Map.entry("stock", new Property<>(ProductDto::getStock, ProductDto::setStock, Integer::valueOf)),
+            Map.entry("rating", new Property<>(ProductDto::getRating, ProductDto::setRating, BigDecimal::new)),
+            Map.entry("reviews", new Property<>(ProductDto::getReviews, ProductDto::setReviews, Integer::valueOf)),
+            Map.entry("createdAt", new Property<>(ProductDto::getCreatedAt, ProductDto::setCreatedAt, LocalDateTime::parse)),
+            Map.entry("updatedAt", new Property<>(ProductDto::getUpdatedAt, ProductDto::setUpdatedAt, LocalDateTime::parse))
+    );
+    
+    private ProductSort() {}
+    
+    public static Comparator<ProductDto> comparator(Sort sort) {
+        Comparator<ProductDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductDto> property = property(order.getProperty()).comparator();
+            if (order.isDescending()) {
+                property = property.reversed();
+            }
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        return comparator == null ? BY_ID : comparator.thenComparing(BY_ID);
+    }
+    
+    public static Property<?> property(String name) {
+        Property<?> property = PROPERTIES.get(name);
+        if (property == null) {
+            throw new BadRequestException("Unsupported sort property: " + name);
+        }
+        return property;
+    }
+    
+    // A sortable ProductDto field, with enough metadata to rebuild a probe value from its
+    // string form (used when seeking to a keyset cursor)
+    public static final class Property<T extends Comparable<? super T>> {
+        
+        private final Function<ProductDto, T> getter;
+        private final BiConsumer<ProductDto, T> setter;
+        private final Function<String, T> parser;
+        private final Comparator<ProductDto> comparator;
+        
+        private Property(Function<ProductDto, T> getter, BiConsumer<ProductDto, T> setter, Function<String, T> parser) {
+            this.getter = getter;
+            this.setter = setter;
+            this.parser = parser;
+            this.comparator = Comparator.comparing(getter, Comparator.nullsLast(Comparator.naturalOrder()));
+        }
+        
+        public Comparator<ProductDto> comparator() {
+            return comparator;
+        }
+        
+        public String format(ProductDto product) {
+            T value = getter.apply(product);
+            if (value == null) {
+                return null;
+            }
+            return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        }
+        
+        public void parseInto(ProductDto probe, String value) {
+            setter.accept(probe, value != null ? parser.apply(value) : null);
+        }
+    }
+}
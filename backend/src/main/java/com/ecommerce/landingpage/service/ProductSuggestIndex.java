@@ -0,0 +1,384 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.ProductSuggestion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Typeahead over product names and categories, kept in a compressed (radix) trie. Names are
+// indexed from every word start, so "pro" completes "MacBook Pro". Each node caches the top-k
+// completions of its subtree, so a lookup is a walk down the prefix plus a copy of that list.
+// Product writes re-insert the affected keys and refresh the cached lists on their paths only.
+@Component
+public class ProductSuggestIndex {
+    
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingDouble(Entry::getWeight).reversed()
+            .thenComparing(Entry::getText);
+    
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Value("${app.suggest.top-k:10}")
+    private int topK;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private volatile SuggestState state;
+    
+    @EventListener
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild(event.getSnapshot());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            SuggestState current = state;
+            if (current != null) {
+                current.update(event.getProduct());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        SuggestState current = currentState();
+        lock.readLock().lock();
+        try {
+            List<ProductSuggestion> suggestions = new ArrayList<>();
+            for (Entry entry : current.trie.complete(key)) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                suggestions.add(entry.toSuggestion());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int getTopK() {
+        return topK;
+    }
+    
+    private SuggestState currentState() {
+        SuggestState current = state;
+        if (current == null) {
+            // Loading the catalog publishes CatalogReloadedEvent, which builds the trie
+            CatalogSnapshot snapshot = productCatalog.snapshot();
+            current = state;
+            if (current == null) {
+                rebuild(snapshot);
+                current = state;
+            }
+        }
+        return current;
+    }
+    
+    private void rebuild(CatalogSnapshot snapshot) {
+        SuggestState rebuilt = new SuggestState(new RadixTrie(topK));
+        for (ProductDto product : snapshot.products()) {
+            rebuilt.update(product);
+        }
+        lock.writeLock().lock();
+        try {
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static String normalize(String text) {
+        return String.join(" ", ProductSearchIndex.tokenize(text));
+    }
+    
+    // Popular, well-rated products first; unrated products still get a small positive weight
+    private static double weight(ProductDto product) {
+        double rating = product.getRating() != null ? product.getRating().doubleValue() : 0;
+        int reviews = product.getReviews() != null ? product.getReviews() : 0;
+        return (1 + rating) * Math.log(2 + reviews);
+    }
+    
+    private static final class SuggestState {
+        
+        private final RadixTrie trie;
+        private final Map<Long, Entry> products = new HashMap<>();
+        // A category is as heavy as all of its products together
+        private final Map<String, Entry> categories = new HashMap<>();
+        
+        SuggestState(RadixTrie trie) {
+            this.trie = trie;
+        }
+        
+        void update(ProductDto product) {
+            Entry previous = products.remove(product.getId());
+            if (previous != null) {
+                removeProduct(previous);
+                adjustCategory(previous.getCategory(), -previous.getWeight(), -1);
+            }
+            if (product.isActive() && product.getName() != null) {
+                Entry entry = new Entry(product.getName(), ProductSuggestion.PRODUCT, product.getId(),
+                        product.getCategory(), weight(product));
+                products.put(entry.getProductId(), entry);
+                for (String key : wordStarts(normalize(entry.getText()))) {
+                    trie.insert(key, entry);
+                }
+                adjustCategory(entry.getCategory(), entry.getWeight(), 1);
+            }
+        }
+        
+        private void removeProduct(Entry entry) {
+            for (String key : wordStarts(normalize(entry.getText()))) {
+                trie.remove(key, entry);
+            }
+        }
+        
+        private void adjustCategory(String category, double weightDelta, int productDelta) {
+            if (category == null) {
+                return;
+            }
+            Entry previous = categories.remove(category);
+            double weight = weightDelta;
+            int products = productDelta;
+            if (previous != null) {
+                trie.remove(normalize(category), previous);
+                weight += previous.getWeight();
+                products += previous.getProducts();
+            }
+            if (products > 0) {
+                Entry entry = new Entry(category, ProductSuggestion.CATEGORY, null, category, weight, products);
+                categories.put(category, entry);
+                trie.insert(normalize(category), entry);
+            }
+        }
+        
+        // "apple macbook pro" -> "apple macbook pro", "macbook pro", "pro"
+        private static Set<String> wordStarts(String key) {
+            Set<String> keys = new LinkedHashSet<>();
+            if (key.isEmpty()) {
+                return keys;
+            }
+            keys.add(key);
+            for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+                keys.add(key.substring(i + 1));
+            }
+            return keys;
+        }
+    }
+    
+    private static final class RadixTrie {
+        
+        private final int topK;
+        private final Node root = new Node("");
+        
+        RadixTrie(int topK) {
+            this.topK = topK;
+        }
+        
+        List<Entry> complete(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefix(child.edge, prefix, i);
+                if (common < child.edge.length() && i + common < prefix.length()) {
+                    return Collections.emptyList();
+                }
+                i += common;
+                node = child;
+            }
+            return node.top;
+        }
+        
+        void insert(String key, Entry entry) {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            path.push(node);
+            int i = 0;
+            while (i < key.length()) {
+                char c = key.charAt(i);
+                Node child = node.children.get(c);
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    node.children.put(c, child);
+                } else {
+                    int common = commonPrefix(child.edge, key, i);
+                    if (common < child.edge.length()) {
+                        // Split the edge; the new middle node covers exactly the old subtree
+                        Node middle = new Node(child.edge.substring(0, common));
+                        child.edge = child.edge.substring(common);
+                        middle.children.put(child.edge.charAt(0), child);
+                        middle.top = child.top;
+                        node.children.put(c, middle);
+                        child = middle;
+                    }
+                }
+                i += child.edge.length();
+                node = child;
+                path.push(node);
+            }
+            
+            if (node.terminals.isEmpty()) {
+                node.terminals = new ArrayList<>(1);
+            }
+            node.terminals.add(entry);
+            refresh(path);
+        }
+        
+        void remove(String key, Entry entry) {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            path.push(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null || !key.startsWith(child.edge, i)) {
+                    return;
+                }
+                i += child.edge.length();
+                node = child;
+                path.push(node);
+            }
+            if (!node.terminals.remove(entry)) {
+                return;
+            }
+            
+            // Drop nodes left empty and fold pass-through nodes back into their only child
+            Deque<Node> trimmed = new ArrayDeque<>(path);
+            Node current = trimmed.pop();
+            while (!trimmed.isEmpty()) {
+                Node parent = trimmed.pop();
+                if (current.terminals.isEmpty() && current.children.isEmpty()) {
+                    parent.children.remove(current.edge.charAt(0));
+                    path.remove(current);
+                } else if (current.terminals.isEmpty() && current.children.size() == 1) {
+                    Node only = current.children.values().iterator().next();
+                    current.edge = current.edge + only.edge;
+                    current.children = only.children;
+                    current.terminals = only.terminals;
+                    current.top = only.top;
+                }
+                current = parent;
+            }
+            refresh(path);
+        }
+        
+        // Recomputes cached completions bottom-up along an insert/remove path
+        private void refresh(Deque<Node> path) {
+            for (Node node : path) {
+                List<Entry> candidates = new ArrayList<>(node.terminals);
+                for (Node child : node.children.values()) {
+                    candidates.addAll(child.top);
+                }
+                candidates.sort(BY_WEIGHT);
+                
+                List<Entry> top = new ArrayList<>(Math.min(topK, candidates.size()));
+                for (Entry candidate : candidates) {
+                    if (top.size() == topK) {
+                        break;
+                    }
+                    // A product reachable through two of its words may arrive twice
+                    if (!top.contains(candidate)) {
+                        top.add(candidate);
+                    }
+                }
+                node.top = top;
+            }
+        }
+        
+        private static int commonPrefix(String edge, String key, int offset) {
+            int max = Math.min(edge.length(), key.length() - offset);
+            int i = 0;
+            while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+    
+    private static final class Node {
+        
+        private String edge;
+        private Map<Character, Node> children = new HashMap<>(4);
+        private List<Entry> terminals = Collections.emptyList();
+        private List<Entry> top = Collections.emptyList();
+        
+        Node(String edge) {
+            this.edge = edge;
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final String text;
+        private final String type;
+        private final Long productId;
+        private final String category;
+        private final double weight;
+        private final int products;
+        
+        Entry(String text, String type, Long productId, String category, double weight) {
+            this(text, type, productId, category, weight, 1);
+        }
+        
+        Entry(String text, String type, Long productId, String category, double weight, int products) {
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+            this.category = category;
+            this.weight = weight;
+            this.products = products;
+        }
+        
+        String getText() {
+            return text;
+        }
+        
+        Long getProductId() {
+            return productId;
+        }
+        
+        String getCategory() {
+            return category;
+        }
+        
+        double getWeight() {
+            return weight;
+        }
+        
+        int getProducts() {
+            return products;
+        }
+        
+        ProductSuggestion toSuggestion() {
+            return new ProductSuggestion(text, type, productId);
+        }
+    }
+}
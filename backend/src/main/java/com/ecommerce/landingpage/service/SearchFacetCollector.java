@@ -0,0 +1,78 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.PriceBucket;
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.SearchFacets;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Accumulates every facet in the same pass that filters the search results. Each facet
+// ignores its own filter (category counts disregard the selected category, price buckets
+// disregard the price range) so the UI can offer alternatives to the current selection.
+final class SearchFacetCollector {
+    
+    private final List<BigDecimal> bucketBounds;
+    private final long[] bucketCounts;
+    private final Map<String, Long> categories = new TreeMap<>();
+    private long inStock;
+    private long outOfStock;
+    private long discounted;
+    private long notDiscounted;
+    
+    SearchFacetCollector(List<BigDecimal> bucketBounds) {
+        this.bucketBounds = bucketBounds;
+        this.bucketCounts = new long[bucketBounds.size() + 1];
+    }
+    
+    void collect(ProductDto product, boolean inCategory, boolean inPriceRange) {
+        if (inPriceRange) {
+            categories.merge(product.getCategory(), 1L, Long::sum);
+        }
+        if (inCategory) {
+            bucketCounts[bucketOf(product.getPrice())]++;
+        }
+        if (inCategory && inPriceRange) {
+            if (product.getStock() != null && product.getStock() > 0) {
+                inStock++;
+            } else {
+                outOfStock++;
+            }
+            if (product.isDiscounted()) {
+                discounted++;
+            } else {
+                notDiscounted++;
+            }
+        }
+    }
+    
+    SearchFacets toFacets() {
+        List<PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            BigDecimal from = i == 0 ? BigDecimal.ZERO : bucketBounds.get(i - 1);
+            BigDecimal to = i < bucketBounds.size() ? bucketBounds.get(i) : null;
+            buckets.add(new PriceBucket(from, to, bucketCounts[i]));
+        }
+        
+        SearchFacets facets = new SearchFacets();
+        facets.setCategories(categories);
+        facets.setPriceBuckets(buckets);
+        facets.setInStock(inStock);
+        facets.setOutOfStock(outOfStock);
+        facets.setDiscounted(discounted);
+        facets.setNotDiscounted(notDiscounted);
+        return facets;
+    }
+    
+    // Buckets are half-open: [from, to)
+    private int bucketOf(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < bucketBounds.size() && price.compareTo(bucketBounds.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.landingpage.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Bounded top-k selection: only k items are held at a time, so picking the best k of n costs
+// O(n log k) instead of sorting all n
+final class TopK {
+    
+    private TopK() {}
+    
+    // The k smallest items under order, smallest first
+    static <T> List<T> best(Iterable<T> items, int k, Comparator<? super T> order) {
+        List<T> best = new ArrayList<>();
+        if (k <= 0) {
+            return best;
+        }
+        // The worst item kept so far sits at the head, ready to be displaced
+        PriorityQueue<T> kept = new PriorityQueue<>(Math.min(k, 256), order.reversed());
+        for (T item : items) {
+            if (kept.size() < k) {
+                kept.add(item);
+            } else if (order.compare(item, kept.peek()) < 0) {
+                kept.poll();
+                kept.add(item);
+            }
+        }
+        best.addAll(kept);
+        best.sort(order);
+        return best;
+    }
+    
+    // True when items holds more than limit elements, without walking past limit + 1
+    static boolean hasMoreThan(Iterable<?> items, int limit) {
+        int count = 0;
+        for (Object ignored : items) {
+            if (++count > limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
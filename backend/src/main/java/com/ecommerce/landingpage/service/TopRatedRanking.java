@@ -0,0 +1,109 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Skip list of active, in-stock products ordered by (rating desc, id asc). Product writes
+// move single entries, so reading a page never sorts the catalog. A catalog reload builds a
+// whole new ranking and swaps it in, so readers never see it half rebuilt.
+@Component
+public class TopRatedRanking {
+    
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::getRating).reversed()
+            .thenComparing(Entry::getProductId);
+    
+    private volatile Ranking current = new Ranking();
+    
+    @EventListener
+    public synchronized void onCatalogReloaded(CatalogReloadedEvent event) {
+        Ranking rebuilt = new Ranking();
+        for (ProductDto product : event.getSnapshot().products()) {
+            rebuilt.update(product);
+        }
+        current = rebuilt;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        current.update(event.getProduct());
+    }
+    
+    // The ids and the total come from the same ranking, even if a reload swaps in another meanwhile
+    public Page<Long> page(Pageable pageable) {
+        Ranking ranking = current;
+        List<Long> ids = collect(ranking.ranking.iterator(), pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(ids, pageable, ranking.entries.size());
+    }
+    
+    public List<Long> page(long offset, int size) {
+        return collect(current.ranking.iterator(), offset, size);
+    }
+    
+    public List<Long> after(BigDecimal rating, Long productId, int size) {
+        Entry probe = new Entry(productId, rating != null ? rating : BigDecimal.ZERO);
+        return collect(current.ranking.tailSet(probe, false).iterator(), 0, size);
+    }
+    
+    private static List<Long> collect(Iterator<Entry> iterator, long skip, int size) {
+        List<Long> ids = new ArrayList<>(size);
+        for (long skipped = 0; skipped < skip && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < size && iterator.hasNext()) {
+            ids.add(iterator.next().getProductId());
+        }
+        return ids;
+    }
+    
+    private static final class Ranking {
+        
+        private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        
+        void update(ProductDto product) {
+            Entry previous = entries.remove(product.getId());
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            if (product.isActive() && product.getStock() != null && product.getStock() > 0) {
+                Entry entry = new Entry(product.getId(), product.getRating() != null ? product.getRating() : BigDecimal.ZERO);
+                ranking.add(entry);
+                entries.put(entry.getProductId(), entry);
+            }
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final Long productId;
+        private final BigDecimal rating;
+        
+        Entry(Long productId, BigDecimal rating) {
+            this.productId = productId;
+            this.rating = rating;
+        }
+        
+        Long getProductId() {
+            return productId;
+        }
+        
+        BigDecimal getRating() {
+            return rating;
+        }
+    }
+}
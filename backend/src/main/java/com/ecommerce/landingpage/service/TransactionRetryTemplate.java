@@ -0,0 +1,61 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.exception.ConcurrentUpdateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Runs work in its own transaction and re-runs it a bounded number of times when it loses a
+// concurrency race (optimistic version conflict, deadlock, lock timeout). Inside an existing
+// transaction the work runs once, since only the outer transaction could be retried. Running
+// out of attempts surfaces as 409 Conflict.
+@Component
+public class TransactionRetryTemplate {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRetryTemplate.class);
+    
+    private static final long BASE_BACKOFF_MILLIS = 5;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.transactions.max-attempts:5}")
+    private int maxAttempts;
+    
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConcurrentUpdateException("Gave up after " + attempt + " attempts due to concurrent updates", e);
+                }
+                logger.debug("Transaction attempt {} of {} lost a concurrent update, retrying: {}", attempt, maxAttempts, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+    
+    // Jittered exponential backoff so colliding writers don't retry in lockstep
+    private static void backOff(int attempt) {
+        long bound = BASE_BACKOFF_MILLIS << attempt;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound / 2, bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transaction", e);
+        }
+    }
+}
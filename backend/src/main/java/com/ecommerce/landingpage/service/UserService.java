@@ -3,6 +3,7 @@ package com.ecommerce.landingpage.service;
 import com.ecommerce.landingpage.dto.UserDto;
 import com.ecommerce.landingpage.exception.ResourceNotFoundException;
 import com.ecommerce.landingpage.model.User;
+import com.ecommerce.landingpage.repository.CartRepository;
 import com.ecommerce.landingpage.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,27 +21,37 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CartRepository cartRepository;
+    
+    @Autowired
+    private CartStore cartStore;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(UserDto::new)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return new UserDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
         return new UserDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
@@ -101,25 +112,34 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        // Cart owns the user_id column and User keeps no inverse mapping to it (that mapping would
+        // cost a cart query on every User load, even from the second-level cache)
+        cartStore.evict(id);
+        cartRepository.findByUserId(id).ifPresent(cartRepository::delete);
         userRepository.deleteById(id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
         return userRepository.findByUsernameOrEmail(usernameOrEmail);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -0,0 +1,65 @@
+package com.ecommerce.landingpage.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+    
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(List.of("replica0"), Duration.ofMinutes(1));
+    
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    void writePinsOnlyTheRequestThatMadeIt() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(route(true)).isEqualTo("replica0");
+        
+        commitWrite();
+        assertThat(route(true)).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        
+        // The next request on the same pooled thread reads from the replica again
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(route(true)).isEqualTo("replica0");
+    }
+    
+    @Test
+    void writeOutsideARequestPinsNothing() {
+        commitWrite();
+        assertThat(route(true)).isEqualTo("replica0");
+    }
+    
+    private void commitWrite() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            assertThat(route(false)).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    private Object route(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
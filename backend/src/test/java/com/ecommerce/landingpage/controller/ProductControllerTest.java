@@ -0,0 +1,94 @@
+package com.ecommerce.landingpage.controller;
+
+import com.ecommerce.landingpage.model.Product;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void cursorPagesVisitEveryActiveProductOnceInOrder() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        List<BigDecimal> prices = new ArrayList<>();
+        String after = "";
+        do {
+            JsonNode page = getJson("/products?size=2&sortBy=price&sortDir=desc&after=" + after);
+            for (JsonNode product : page.get("content")) {
+                ids.add(product.get("id").asLong());
+                prices.add(product.get("price").decimalValue());
+            }
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+        
+        long active = productRepository.findAll().stream().filter(Product::isActive).count();
+        assertThat(ids).doesNotHaveDuplicates().hasSize((int) active);
+        assertThat(prices).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+    
+    @Test
+    void pageSizeBelowOneIsRejected() throws Exception {
+        mockMvc.perform(get("/products").param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("size", "0").param("after", "")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("size", "-5").param("after", "")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products/top-rated").param("size", "0").param("after", "")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products/in-stock").param("size", "-1")).andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void oversizedPageIsClamped() throws Exception {
+        mockMvc.perform(get("/products").param("size", "100000").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+        mockMvc.perform(get("/products/top-rated").param("size", "100000").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+    }
+    
+    @Test
+    void searchPagesFollowTheRelevanceOrderOfTheWholeResult() throws Exception {
+        JsonNode all = getJson("/products/search?searchTerm=pro&size=100");
+        int total = all.get("totalElements").asInt();
+        assertThat(total).isGreaterThan(1);
+        
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < total; page++) {
+            JsonNode single = getJson("/products/search?searchTerm=pro&size=1&page=" + page);
+            assertThat(single.get("totalElements").asInt()).isEqualTo(total);
+            paged.add(single.get("content").get(0).get("id").asLong());
+        }
+        List<Long> ranked = new ArrayList<>();
+        all.get("content").forEach(product -> ranked.add(product.get("id").asLong()));
+        assertThat(paged).isEqualTo(ranked);
+    }
+    
+    private JsonNode getJson(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.landingpage.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserRepositoryTest {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void signInLookupIsServedFromTheQueryCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userRepository.findByUsernameOrEmail("user");
+        long hits = statistics.getQueryRegionStatistics(UserRepository.QUERY_CACHE_REGION).getHitCount();
+        long executions = statistics.getQueryExecutionCount();
+        
+        assertThat(userRepository.findByUsernameOrEmail("user")).isPresent();
+        assertThat(statistics.getQueryRegionStatistics(UserRepository.QUERY_CACHE_REGION).getHitCount()).isEqualTo(hits + 1);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(executions);
+    }
+}
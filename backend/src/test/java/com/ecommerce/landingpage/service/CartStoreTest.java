@@ -0,0 +1,135 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.repository.ProductRepository;
+import com.ecommerce.landingpage.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The scheduled flush is pushed out of the way so each test decides when carts are written, and
+// a zero idle timeout lets every flush evict the carts it has just made clean
+@SpringBootTest(properties = {
+        "app.carts.flush-interval-ms=3600000",
+        "app.carts.idle-timeout=0s",
+        "app.carts.sweep.enabled=false"
+})
+class CartStoreTest {
+    
+    private static final String ITEM_QUANTITY_SQL = "SELECT ci.quantity FROM cart_items ci JOIN carts c ON c.id = ci.cart_id " +
+            "WHERE c.user_id = ? AND ci.product_id = ?";
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long productId;
+    
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.findAll().get(0).getId();
+    }
+    
+    @Test
+    void mutationIsWrittenByFlushAndSurvivesEviction() throws Exception {
+        Long userId = freshUser("user");
+        
+        cartStore.update(userId, cart -> {
+            cart.setQuantity(productId, 3);
+            return null;
+        });
+        assertThat(cartStore.isLoaded(userId)).isTrue();
+        assertThat(storedQuantities(userId)).isEmpty();
+        
+        Thread.sleep(5);
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).containsExactly(3);
+        assertThat(cartStore.isLoaded(userId)).isFalse();
+        
+        int reloaded = cartStore.read(userId, cart -> cart.quantity(productId));
+        assertThat(reloaded).isEqualTo(3);
+        assertThat(cartStore.isLoaded(userId)).isTrue();
+    }
+    
+    @Test
+    void cartSweptAfterLoadingIsInsertedAgainOnFlush() throws Exception {
+        Long userId = freshUser("admin");
+        cartStore.update(userId, cart -> {
+            cart.setQuantity(productId, 2);
+            return null;
+        });
+        Thread.sleep(5);
+        cartStore.flush();
+        Long sweptCartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, userId);
+        
+        // Loaded again, then swept before the next change is flushed
+        cartStore.read(userId, cart -> cart.quantity(productId));
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ?", sweptCartId);
+        jdbcTemplate.update("DELETE FROM carts WHERE id = ?", sweptCartId);
+        cartStore.update(userId, cart -> {
+            cart.setQuantity(productId, 5);
+            return null;
+        });
+        
+        Thread.sleep(5);
+        cartStore.flush();
+        List<Long> cartIds = jdbcTemplate.queryForList("SELECT id FROM carts WHERE user_id = ?", Long.class, userId);
+        assertThat(cartIds).hasSize(1).doesNotContain(sweptCartId);
+        assertThat(storedQuantities(userId)).containsExactly(5);
+        int inMemory = cartStore.read(userId, cart -> cart.quantity(productId));
+        assertThat(inMemory).isEqualTo(5);
+    }
+    
+    @Test
+    void cartThatFailsToWriteDoesNotHoldBackOthers() throws Exception {
+        Long userId = freshUser("user");
+        Long brokenUserId = freshUser("admin");
+        cartStore.update(userId, cart -> {
+            cart.setQuantity(productId, 4);
+            return null;
+        });
+        // No such product, so inserting the line breaks its foreign key
+        cartStore.update(brokenUserId, cart -> {
+            cart.setQuantity(Long.MAX_VALUE, 1);
+            return null;
+        });
+        
+        Thread.sleep(5);
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).containsExactly(4);
+        assertThat(cartStore.isLoaded(userId)).isFalse();
+        assertThat(cartStore.isLoaded(brokenUserId)).isTrue();
+        
+        cartStore.flush();
+        cartStore.flush();
+        assertThat(cartStore.isLoaded(brokenUserId)).isFalse();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM carts WHERE user_id = ?", Long.class, brokenUserId)).isEmpty();
+        int reloaded = cartStore.read(brokenUserId, cart -> cart.quantity(Long.MAX_VALUE));
+        assertThat(reloaded).isZero();
+    }
+    
+    private Long freshUser(String username) {
+        Long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        cartStore.evict(userId);
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", userId);
+        return userId;
+    }
+    
+    private List<Integer> storedQuantities(Long userId) {
+        return jdbcTemplate.queryForList(ITEM_QUANTITY_SQL, Integer.class, userId, productId);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.FlashSaleDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlashSaleEngineTest {
+    
+    private final FlashSaleEngine engine = new FlashSaleEngine();
+    
+    @BeforeEach
+    void setUp() {
+        // Four shards, and an admission rate high enough never to throttle a test
+        ReflectionTestUtils.setField(engine, "configuredShards", 4);
+        ReflectionTestUtils.setField(engine, "admissionRate", 1_000_000_000L);
+        ReflectionTestUtils.setField(engine, "admissionBurst", 1_000_000_000L);
+    }
+    
+    @Test
+    void quantityNoShardHoldsIsGatheredAcrossShards() {
+        // 10 units over 4 shards: 3, 3, 2, 2
+        FlashSaleEngine.Sale sale = engine.register(sale(1L, null), 10);
+        
+        FlashSaleEngine.Attempt attempt = engine.tryPurchase(1L, 100L, 9);
+        
+        assertThat(attempt.getOutcome()).isEqualTo(FlashSaleEngine.Outcome.ACCEPTED);
+        assertThat(attempt.getSale()).isSameAs(sale);
+        assertThat(sale.remaining()).isEqualTo(1);
+        assertThat(sale.getSold()).isEqualTo(9);
+    }
+    
+    @Test
+    void shortGatherIsHandedBack() {
+        FlashSaleEngine.Sale sale = engine.register(sale(1L, 11), 10);
+        
+        assertThat(engine.tryPurchase(1L, 100L, 11).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.SOLD_OUT);
+        assertThat(sale.remaining()).isEqualTo(10);
+        assertThat(sale.status()).isEqualTo(FlashSaleDto.ACTIVE);
+        
+        // Neither the units nor the buyer's limit were used up by the failed attempt
+        assertThat(engine.tryPurchase(1L, 100L, 10).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.ACCEPTED);
+        assertThat(sale.remaining()).isZero();
+        assertThat(engine.tryPurchase(1L, 200L, 1).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.SOLD_OUT);
+    }
+    
+    @Test
+    void limitIsPerBuyerId() {
+        FlashSaleEngine.Sale sale = engine.register(sale(1L, 2), 100);
+        sale.restoreCustomer(300L, 2);
+        
+        assertThat(engine.tryPurchase(1L, 100L, 2).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.ACCEPTED);
+        assertThat(engine.tryPurchase(1L, 100L, 1).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.LIMIT_EXCEEDED);
+        assertThat(engine.tryPurchase(1L, 200L, 1).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.ACCEPTED);
+        assertThat(engine.tryPurchase(1L, 300L, 1).getOutcome()).isEqualTo(FlashSaleEngine.Outcome.LIMIT_EXCEEDED);
+    }
+    
+    @Test
+    void removedSaleIsNotFound() {
+        engine.register(sale(1L, null), 10);
+        engine.remove(1L);
+        
+        FlashSaleEngine.Attempt attempt = engine.tryPurchase(1L, 100L, 1);
+        
+        assertThat(attempt.getOutcome()).isEqualTo(FlashSaleEngine.Outcome.NOT_FOUND);
+        assertThat(attempt.getSale()).isNull();
+    }
+    
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        FlashSaleEngine.Sale sale = engine.register(sale(1L, null), 100);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>();
+        try {
+            for (long buyer = 0; buyer < 200; buyer++) {
+                long buyerId = buyer;
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    if (engine.tryPurchase(1L, buyerId, 3).getOutcome() == FlashSaleEngine.Outcome.ACCEPTED) {
+                        accepted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(accepted.get()).isLessThanOrEqualTo(33);
+        assertThat(sale.getSold()).isEqualTo(accepted.get() * 3L);
+        assertThat(sale.remaining()).isEqualTo(100 - accepted.get() * 3);
+    }
+    
+    private static FlashSaleDto sale(Long id, Integer perCustomerLimit) {
+        FlashSaleDto flashSale = new FlashSaleDto();
+        flashSale.setId(id);
+        flashSale.setProductId(1L);
+        flashSale.setStartTime(LocalDateTime.now().minusHours(1));
+        flashSale.setEndTime(LocalDateTime.now().plusHours(1));
+        flashSale.setPerCustomerLimit(perCustomerLimit);
+        return flashSale;
+    }
+}
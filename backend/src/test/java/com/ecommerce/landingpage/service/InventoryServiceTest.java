@@ -0,0 +1,74 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.StockAdjustment;
+import com.ecommerce.landingpage.exception.InsufficientStockException;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class InventoryServiceTest {
+    
+    private static final int THREADS = 300;
+    private static final int INITIAL_STOCK = 200;
+    private static final int QUANTITY = 2;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Long productId = productRepository.findAll().get(0).getId();
+        jdbcTemplate.update("UPDATE products SET stock = ?, active = true WHERE id = ?", INITIAL_STOCK, productId);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        inventoryService.reserve(List.of(new StockAdjustment(productId, QUANTITY)));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+        assertThat(reserved.get() * QUANTITY).isEqualTo(INITIAL_STOCK);
+        assertThat(rejected.get()).isEqualTo(THREADS - INITIAL_STOCK / QUANTITY);
+        assertThat(stock).isZero();
+    }
+}
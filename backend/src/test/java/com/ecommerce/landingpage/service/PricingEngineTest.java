@@ -0,0 +1,62 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.model.Cart;
+import com.ecommerce.landingpage.model.CartItem;
+import com.ecommerce.landingpage.model.Order;
+import com.ecommerce.landingpage.model.OrderItem;
+import com.ecommerce.landingpage.model.Product;
+import com.ecommerce.landingpage.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PricingEngineTest {
+    
+    @Autowired
+    private PricingEngine pricingEngine;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void cartKeepsRequestedDiscountAndStoresTheAppliedOne() {
+        Product product = productRepository.findAll().get(0);
+        Cart cart = new Cart();
+        cart.addItem(new CartItem(cart, product, 1));
+        BigDecimal requested = product.getPrice().add(new BigDecimal("100.00"));
+        
+        cart.applyDiscount("BIG", requested, pricingEngine::price);
+        
+        assertThat(cart.getDiscount()).isEqualByComparingTo(requested);
+        assertThat(cart.getAppliedDiscount()).isEqualByComparingTo(product.getPrice());
+        assertThat(cart.getTax()).isEqualByComparingTo("0");
+        assertThat(cart.getTotal()).isEqualByComparingTo("5.99");
+        
+        cart.removeDiscount(pricingEngine::price);
+        assertThat(cart.getAppliedDiscount()).isEqualByComparingTo("0");
+        assertThat(cart.getSubtotal()).isEqualByComparingTo(product.getPrice());
+    }
+    
+    @Test
+    void orderIsPricedAtItsCapturedLinePrices() {
+        Product product = productRepository.findAll().get(0);
+        Order order = new Order();
+        OrderItem item = new OrderItem(order, product, 3);
+        item.setPrice(new BigDecimal("10.00"));
+        order.addItem(item);
+        order.setDiscount(new BigDecimal("5.00"));
+        
+        order.calculateTotals(pricingEngine::price);
+        
+        assertThat(order.getSubtotal()).isEqualByComparingTo("30.00");
+        assertThat(order.getAppliedDiscount()).isEqualByComparingTo("5.00");
+        assertThat(order.getTax()).isEqualByComparingTo("2.00");
+        assertThat(order.getShipping()).isEqualByComparingTo("5.99");
+        assertThat(order.getTotal()).isEqualByComparingTo("32.99");
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductImportStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductImportServiceTest {
+    
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void invalidRowsAreReportedAndTheRestImported() throws Exception {
+        List<ProductImportStatus> report = importFile(ProductFileFormat.NDJSON,
+                "{\"name\":\"Import Lamp\",\"price\":20,\"category\":\"Home\",\"stock\":5}",
+                "{\"name\":\"Import Priceless\",\"category\":\"Home\",\"stock\":5}",
+                "not json",
+                "[1, 2]",
+                "{\"name\":\"Import Rug\",\"price\":40,\"category\":\"Home\",\"stock\":2}");
+        
+        assertThat(errorLines(report)).containsExactly(2L, 3L, 4L);
+        assertThat(report.get(0).getErrors()).containsExactly("price: Price is required");
+        assertThat(done(report).getImported()).isEqualTo(2);
+        assertThat(done(report).getFailed()).isEqualTo(3);
+        assertThat(count("Import Lamp")).isEqualTo(1);
+        assertThat(count("Import Priceless")).isZero();
+        assertThat(count("Import Rug")).isEqualTo(1);
+    }
+    
+    @Test
+    void failedBatchIsReplayedRowByRow() throws Exception {
+        // A rating of 50 passes validation but overflows the rating column, failing the whole batch
+        List<ProductImportStatus> report = importFile(ProductFileFormat.NDJSON,
+                "{\"name\":\"Replay Kettle\",\"price\":30,\"category\":\"Home\",\"stock\":3}",
+                "{\"name\":\"Replay Toaster\",\"price\":25,\"category\":\"Home\",\"stock\":3,\"rating\":50}",
+                "{\"name\":\"Replay Blender\",\"price\":60,\"category\":\"Home\",\"stock\":1}");
+        
+        assertThat(errorLines(report)).containsExactly(2L);
+        assertThat(done(report).getImported()).isEqualTo(2);
+        assertThat(done(report).getFailed()).isEqualTo(1);
+        assertThat(count("Replay Kettle")).isEqualTo(1);
+        assertThat(count("Replay Toaster")).isZero();
+        assertThat(count("Replay Blender")).isEqualTo(1);
+    }
+    
+    @Test
+    void activeColumnIsHonouredWhenPresent() throws Exception {
+        importFile(ProductFileFormat.CSV,
+                "name,price,category,stock,active",
+                "Active Csv Chair,50,Home,1,true",
+                "Retired Csv Chair,50,Home,1,false",
+                "Unset Csv Chair,50,Home,1,");
+        importFile(ProductFileFormat.CSV,
+                "name,price,category,stock",
+                "Headerless Csv Chair,50,Home,1");
+        importFile(ProductFileFormat.NDJSON,
+                "{\"name\":\"Retired Json Chair\",\"price\":50,\"category\":\"Home\",\"stock\":1,\"active\":false}",
+                "{\"name\":\"Unset Json Chair\",\"price\":50,\"category\":\"Home\",\"stock\":1}");
+        
+        assertThat(active("Active Csv Chair")).isTrue();
+        assertThat(active("Retired Csv Chair")).isFalse();
+        assertThat(active("Unset Csv Chair")).isTrue();
+        assertThat(active("Headerless Csv Chair")).isTrue();
+        assertThat(active("Retired Json Chair")).isFalse();
+        assertThat(active("Unset Json Chair")).isTrue();
+    }
+    
+    private List<ProductImportStatus> importFile(ProductFileFormat format, String... lines) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] input = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        productImportService.importProducts(new ByteArrayInputStream(input), format, output);
+        
+        List<ProductImportStatus> report = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            report.add(objectMapper.readValue(line, ProductImportStatus.class));
+        }
+        return report;
+    }
+    
+    private static List<Long> errorLines(List<ProductImportStatus> report) {
+        List<Long> lines = new ArrayList<>();
+        for (ProductImportStatus status : report) {
+            if (ProductImportStatus.ERROR.equals(status.getStatus())) {
+                lines.add(status.getLine());
+            }
+        }
+        return lines;
+    }
+    
+    private static ProductImportStatus done(List<ProductImportStatus> report) {
+        ProductImportStatus last = report.get(report.size() - 1);
+        assertThat(last.getStatus()).isEqualTo(ProductImportStatus.DONE);
+        return last;
+    }
+    
+    private int count(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE name = ?", Integer.class, name);
+    }
+    
+    private boolean active(String name) {
+        return jdbcTemplate.queryForObject("SELECT active FROM products WHERE name = ?", Boolean.class, name);
+    }
+}
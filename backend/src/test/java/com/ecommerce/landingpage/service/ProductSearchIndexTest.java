@@ -0,0 +1,153 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    
+    @Test
+    void exactTermOutranksPrefixExpansion() {
+        load(product(1L, "Phone Case", "Slim fit"), product(2L, "Phonebook Deluxe", "Paper"));
+        
+        Map<Long, Float> scores = index.scores("phone", false);
+        
+        assertThat(scores).containsOnlyKeys(1L, 2L);
+        assertThat(scores.get(1L)).isGreaterThan(scores.get(2L));
+    }
+    
+    @Test
+    void nameMatchOutranksDescriptionMatch() {
+        load(product(1L, "Laptop Sleeve", "Padded"), product(2L, "Desk Lamp", "Bright enough for any laptop"));
+        
+        Map<Long, Float> scores = index.scores("laptop", false);
+        
+        assertThat(scores.get(1L)).isGreaterThan(scores.get(2L));
+    }
+    
+    @Test
+    void everyTokenMustMatch() {
+        load(product(1L, "Phone Case", "Slim"), product(2L, "Phone Stand", "Aluminium"), product(3L, "Laptop Case", "Padded"));
+        
+        assertThat(index.scores("phone case", false)).containsOnlyKeys(1L);
+        assertThat(index.scores("phone tripod", false)).isEmpty();
+    }
+    
+    @Test
+    void shortPrefixKeepsTheMostCommonExpansions() {
+        List<ProductDto> products = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 300; i++) {
+            products.add(product(id++, String.format("zza%03d", i), null));
+        }
+        // Sorts after every zza term, so only ranking by posting size can keep it
+        for (int i = 0; i < 5; i++) {
+            products.add(product(id++, "zzz Widget", null));
+        }
+        load(products.toArray(new ProductDto[0]));
+        
+        Map<Long, Float> scores = index.scores("zz", false);
+        
+        assertThat(scores).containsKeys(301L, 302L, 303L, 304L, 305L).hasSize(5 + 255);
+    }
+    
+    @Test
+    void typoMatchesNameWordOnlyInFuzzyMode() {
+        load(product(1L, "Macbook Air", "Thin and light"), product(2L, "Desk Lamp", "Bright"));
+        
+        assertThat(index.scores("macbok", true)).containsOnlyKeys(1L);
+        assertThat(index.scores("macbok air", true)).containsOnlyKeys(1L);
+        assertThat(index.scores("macbok", false)).isEmpty();
+    }
+    
+    @Test
+    void closerSpellingRanksHigher() {
+        load(product(1L, "Running Trainers", "Light"), product(2L, "Trainees Handbook", "Paper"));
+        
+        // One edit from "trainers", two from "trainees"
+        Map<Long, Float> scores = index.scores("trainerz", true);
+        
+        assertThat(scores).containsOnlyKeys(1L, 2L);
+        assertThat(scores.get(1L)).isGreaterThan(scores.get(2L));
+    }
+    
+    @Test
+    void shortTokensAreNeverFuzzy() {
+        load(product(1L, "Yoga Mat", "Non-slip"));
+        
+        assertThat(index.scores("mta", true)).isEmpty();
+        assertThat(index.scores("mat", true)).containsOnlyKeys(1L);
+    }
+    
+    @Test
+    void indexedWordIsNotTreatedAsTypo() {
+        load(product(1L, "Phone Case", "Slim"), product(2L, "Phono Preamp", "Vinyl"));
+        
+        assertThat(index.scores("phone", true)).containsOnlyKeys(1L);
+        assertThat(index.scores("phonr", true)).containsOnlyKeys(1L, 2L);
+    }
+    
+    @Test
+    void renameIsSwappedInWithoutTouchingThePublishedState() {
+        load(product(1L, "Phone Case", "Slim"), product(2L, "Laptop Sleeve", "Padded"));
+        Object published = ReflectionTestUtils.getField(index, "state");
+        
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product(1L, "Tablet Case", "Slim")));
+        
+        assertThat(index.scores("phone", false)).isEmpty();
+        assertThat(index.scores("tablet", false)).containsOnlyKeys(1L);
+        assertThat(index.scores("case", false)).containsOnlyKeys(1L);
+        // A search still running on the old state sees the product as it was, never half re-indexed
+        Map<Long, Float> before = ReflectionTestUtils.invokeMethod(published, "match", "phone", false);
+        assertThat(before).containsOnlyKeys(1L);
+        Map<Long, Float> tabletBefore = ReflectionTestUtils.invokeMethod(published, "match", "tablet", false);
+        assertThat(tabletBefore).isEmpty();
+    }
+    
+    @Test
+    void changeThatLeavesTheTextAloneKeepsTheState() {
+        load(product(1L, "Phone Case", "Slim"));
+        Object published = ReflectionTestUtils.getField(index, "state");
+        ProductDto restocked = product(1L, "Phone Case", "Slim");
+        restocked.setStock(99);
+        
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, restocked));
+        
+        assertThat(ReflectionTestUtils.getField(index, "state")).isSameAs(published);
+    }
+    
+    @Test
+    void deactivatedProductDropsOut() {
+        load(product(1L, "Phone Case", "Slim"), product(2L, "Phone Stand", "Aluminium"));
+        ProductDto retired = product(2L, "Phone Stand", "Aluminium");
+        retired.setActive(false);
+        
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, retired));
+        
+        assertThat(index.scores("phone", false)).containsOnlyKeys(1L);
+        assertThat(index.scores("aluminium", false)).isEmpty();
+    }
+    
+    private void load(ProductDto... products) {
+        index.onCatalogReloaded(new CatalogReloadedEvent(new CatalogSnapshot(1, new ArrayList<>(List.of(products)))));
+    }
+    
+    private static ProductDto product(Long id, String name, String description) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory("Accessories");
+        product.setStock(10);
+        product.setActive(true);
+        return product;
+    }
+}
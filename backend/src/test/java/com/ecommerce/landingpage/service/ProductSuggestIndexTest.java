@@ -0,0 +1,152 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.ProductSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestIndexTest {
+    
+    private final ProductSuggestIndex index = new ProductSuggestIndex();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "topK", 10);
+    }
+    
+    @Test
+    void sharedPrefixSplitsTheEdge() {
+        load(product(1L, "Macbook", "Computers", 5, 100), product(2L, "Magic Trackpad", "Computers", 4, 10));
+        
+        assertThat(texts("ma")).containsExactly("Macbook", "Magic Trackpad");
+        assertThat(texts("mac")).containsExactly("Macbook");
+        assertThat(texts("magic t")).containsExactly("Magic Trackpad");
+        assertThat(texts("mab")).isEmpty();
+        
+        Object split = child(root(), 'm');
+        assertThat(edge(split)).isEqualTo("ma");
+        assertThat(children(split)).containsOnlyKeys('c', 'g');
+    }
+    
+    @Test
+    void removalFoldsThePassThroughNodeIntoItsOnlyChild() {
+        load(product(1L, "Macbook", "Computers", 5, 100), product(2L, "Magic Trackpad", "Computers", 4, 10));
+        
+        index.onProductChanged(updated(retired(product(2L, "Magic Trackpad", "Computers", 4, 10))));
+        
+        assertThat(texts("ma")).containsExactly("Macbook");
+        assertThat(texts("mag")).isEmpty();
+        assertThat(texts("trackpad")).isEmpty();
+        Object merged = child(root(), 'm');
+        assertThat(edge(merged)).isEqualTo("macbook");
+        assertThat(children(merged)).isEmpty();
+    }
+    
+    @Test
+    void removalRefillsTheCachedTopK() {
+        ReflectionTestUtils.setField(index, "topK", 2);
+        load(product(1L, "Desk Lamp", "Home", 5, 100), product(2L, "Desk Mat", "Home", 4, 50), product(3L, "Desk Fan", "Home", 1, 0));
+        assertThat(texts("desk")).containsExactly("Desk Lamp", "Desk Mat");
+        
+        index.onProductChanged(updated(retired(product(1L, "Desk Lamp", "Home", 5, 100))));
+        
+        assertThat(texts("desk")).containsExactly("Desk Mat", "Desk Fan");
+        assertThat(texts("d")).containsExactly("Desk Mat", "Desk Fan");
+    }
+    
+    @Test
+    void productReachableThroughTwoWordStartsIsSuggestedOnce() {
+        load(product(1L, "Pro Protector", "Home", 4, 10));
+        
+        assertThat(index.suggest("pro", 10)).extracting(ProductSuggestion::getProductId).containsExactly(1L);
+        assertThat(texts("protector")).containsExactly("Pro Protector");
+    }
+    
+    @Test
+    void renameReplacesEveryWordStart() {
+        load(product(1L, "Pro Protector", "Home", 4, 10), product(2L, "Probe Thermometer", "Home", 3, 5));
+        
+        index.onProductChanged(updated(product(1L, "Screen Guard", "Home", 4, 10)));
+        
+        assertThat(texts("pro")).containsExactly("Probe Thermometer");
+        assertThat(texts("protector")).isEmpty();
+        assertThat(texts("screen")).containsExactly("Screen Guard");
+        assertThat(texts("guard")).containsExactly("Screen Guard");
+    }
+    
+    @Test
+    void categoryLosesTheWeightOfRemovedProducts() {
+        load(product(1L, "Headphones", "Audio", 4, 10), product(2L, "Speaker", "Audio", 4, 10),
+                product(3L, "Fryer", "Appliances", 4, 100));
+        // Two mid-weight products outweigh one heavy one
+        assertThat(texts("a")).containsExactly("Audio", "Appliances");
+        
+        index.onProductChanged(updated(retired(product(2L, "Speaker", "Audio", 4, 10))));
+        assertThat(texts("a")).containsExactly("Appliances", "Audio");
+        
+        index.onProductChanged(updated(retired(product(1L, "Headphones", "Audio", 4, 10))));
+        List<ProductSuggestion> suggestions = index.suggest("a", 10);
+        assertThat(suggestions).extracting(ProductSuggestion::getText).containsExactly("Appliances");
+        assertThat(suggestions).extracting(ProductSuggestion::getType).containsExactly(ProductSuggestion.CATEGORY);
+    }
+    
+    private List<String> texts(String prefix) {
+        List<String> texts = new ArrayList<>();
+        for (ProductSuggestion suggestion : index.suggest(prefix, 10)) {
+            texts.add(suggestion.getText());
+        }
+        return texts;
+    }
+    
+    private Object root() {
+        Object state = ReflectionTestUtils.getField(index, "state");
+        Object trie = ReflectionTestUtils.getField(state, "trie");
+        return ReflectionTestUtils.getField(trie, "root");
+    }
+    
+    private static Object child(Object node, char c) {
+        return children(node).get(c);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<Character, Object> children(Object node) {
+        return (Map<Character, Object>) ReflectionTestUtils.getField(node, "children");
+    }
+    
+    private static String edge(Object node) {
+        return (String) ReflectionTestUtils.getField(node, "edge");
+    }
+    
+    private void load(ProductDto... products) {
+        index.onCatalogReloaded(new CatalogReloadedEvent(new CatalogSnapshot(1, new ArrayList<>(List.of(products)))));
+    }
+    
+    private static ProductChangedEvent updated(ProductDto product) {
+        return new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product);
+    }
+    
+    private static ProductDto retired(ProductDto product) {
+        product.setActive(false);
+        return product;
+    }
+    
+    private static ProductDto product(Long id, String name, String category, int rating, int reviews) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setRating(BigDecimal.valueOf(rating));
+        product.setReviews(reviews);
+        product.setStock(10);
+        product.setActive(true);
+        return product;
+    }
+}
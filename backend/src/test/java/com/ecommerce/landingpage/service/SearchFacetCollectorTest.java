@@ -0,0 +1,79 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.PriceBucket;
+import com.ecommerce.landingpage.dto.ProductDto;
+import com.ecommerce.landingpage.dto.SearchFacets;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SearchFacetCollectorTest {
+    
+    private final SearchFacetCollector collector = new SearchFacetCollector(List.of(new BigDecimal("25"), new BigDecimal("100")));
+    
+    @Test
+    void pricesFallIntoHalfOpenBuckets() {
+        for (String price : List.of("0.99", "24.99", "25", "99.99", "100", "2500")) {
+            collector.collect(product("Books", price, 1, false), true, true);
+        }
+        
+        List<PriceBucket> buckets = collector.toFacets().getPriceBuckets();
+        
+        assertThat(buckets).extracting(PriceBucket::getFrom)
+                .containsExactly(BigDecimal.ZERO, new BigDecimal("25"), new BigDecimal("100"));
+        assertThat(buckets).extracting(PriceBucket::getTo).containsExactly(new BigDecimal("25"), new BigDecimal("100"), null);
+        assertThat(buckets).extracting(PriceBucket::getCount).containsExactly(2L, 2L, 2L);
+    }
+    
+    @Test
+    void eachFacetIgnoresItsOwnFilter() {
+        // Searching Books priced 25-100
+        collector.collect(product("Books", "30", 1, false), true, true);
+        collector.collect(product("Books", "10", 1, false), true, false);
+        collector.collect(product("Toys", "40", 1, false), false, true);
+        collector.collect(product("Toys", "500", 1, false), false, false);
+        
+        SearchFacets facets = collector.toFacets();
+        
+        assertThat(facets.getCategories()).containsOnly(entry("Books", 1L), entry("Toys", 1L));
+        assertThat(facets.getPriceBuckets()).extracting(PriceBucket::getCount).containsExactly(1L, 1L, 0L);
+        assertThat(facets.getInStock() + facets.getOutOfStock()).isEqualTo(1);
+    }
+    
+    @Test
+    void stockAndDiscountCountOnlyMatchingProducts() {
+        collector.collect(product("Books", "30", 5, true), true, true);
+        collector.collect(product("Books", "30", 0, false), true, true);
+        collector.collect(product("Books", "30", null, true), true, true);
+        collector.collect(product("Toys", "30", 5, true), false, true);
+        
+        SearchFacets facets = collector.toFacets();
+        
+        assertThat(facets.getInStock()).isEqualTo(1);
+        assertThat(facets.getOutOfStock()).isEqualTo(2);
+        assertThat(facets.getDiscounted()).isEqualTo(2);
+        assertThat(facets.getNotDiscounted()).isEqualTo(1);
+    }
+    
+    @Test
+    void emptySearchStillListsEveryBucket() {
+        SearchFacets facets = collector.toFacets();
+        
+        assertThat(facets.getCategories()).isEmpty();
+        assertThat(facets.getPriceBuckets()).extracting(PriceBucket::getCount).containsExactly(0L, 0L, 0L);
+    }
+    
+    private static ProductDto product(String category, String price, Integer stock, boolean discounted) {
+        ProductDto product = new ProductDto();
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setDiscounted(discounted);
+        product.setActive(true);
+        return product;
+    }
+}
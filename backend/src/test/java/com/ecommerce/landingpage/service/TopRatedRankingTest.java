@@ -0,0 +1,69 @@
+package com.ecommerce.landingpage.service;
+
+import com.ecommerce.landingpage.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopRatedRankingTest {
+    
+    private final TopRatedRanking ranking = new TopRatedRanking();
+    
+    @Test
+    void ranksInStockProductsByRatingThenId() {
+        load(product(1L, "4.5", 5), product(2L, "4.9", 5), product(3L, "4.5", 5), product(4L, "5.0", 0));
+        
+        Page<Long> page = ranking.page(PageRequest.of(0, 10));
+        
+        assertThat(page.getContent()).containsExactly(2L, 1L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(ranking.after(new BigDecimal("4.5"), 1L, 10)).containsExactly(3L);
+    }
+    
+    @Test
+    void reloadSwapsInANewRankingAndLeavesTheOldOneWhole() {
+        load(product(1L, "4.5", 5), product(2L, "4.9", 5));
+        Object published = ReflectionTestUtils.getField(ranking, "current");
+        
+        load(product(3L, "3.0", 5));
+        
+        assertThat(ranking.page(PageRequest.of(0, 10)).getContent()).containsExactly(3L);
+        // A reader still iterating the old ranking sees every product it had, not a cleared set
+        Map<?, ?> oldEntries = (Map<?, ?>) ReflectionTestUtils.getField(published, "entries");
+        assertThat(oldEntries).hasSize(2);
+    }
+    
+    @Test
+    void productChangeMovesItsEntry() {
+        load(product(1L, "4.5", 5), product(2L, "4.9", 5));
+        
+        ranking.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product(1L, "5.0", 5)));
+        assertThat(ranking.page(0, 10)).containsExactly(1L, 2L);
+        
+        ranking.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product(2L, "4.9", 0)));
+        assertThat(ranking.page(PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+    }
+    
+    private void load(ProductDto... products) {
+        ranking.onCatalogReloaded(new CatalogReloadedEvent(new CatalogSnapshot(1, new ArrayList<>(List.of(products)))));
+    }
+    
+    private static ProductDto product(Long id, String rating, int stock) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory("Electronics");
+        product.setRating(new BigDecimal(rating));
+        product.setStock(stock);
+        product.setActive(true);
+        return product;
+    }
+}